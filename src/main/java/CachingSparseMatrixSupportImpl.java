@@ -0,0 +1,174 @@
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Memoizes products, transposes and powers of matrices. Operands are identified by {@link SparseMatrix#fingerprint},
+ * so equal matrices built separately share cache entries and the cache does not keep operands themselves alive.
+ * Cache size is limited by the memory taken by cached matrices; when the limit is reached entries are evicted
+ * according to the chosen {@link EvictionPolicy}.
+ */
+public class CachingSparseMatrixSupportImpl implements SparseMatrixSupport<SparseMatrix> {
+    private static final Logger LOGGER = LoggerFactory.getLogger(CachingSparseMatrixSupportImpl.class);
+
+    private final SparseMatrixSupport<SparseMatrix> delegate;
+    private final long maxCachedBytes;
+    private final EvictionPolicy evictionPolicy;
+    //access ordered, so iteration starts from the least recently used entry
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long cachedBytes;
+
+    public CachingSparseMatrixSupportImpl(long maxCachedBytes) {
+        this(new SparseMatrixSupportImpl(), maxCachedBytes, EvictionPolicy.LRU);
+    }
+
+    public CachingSparseMatrixSupportImpl(SparseMatrixSupport<SparseMatrix> delegate, long maxCachedBytes,
+                                          EvictionPolicy evictionPolicy) {
+        this.delegate = delegate;
+        this.maxCachedBytes = maxCachedBytes;
+        this.evictionPolicy = evictionPolicy;
+    }
+
+    @Override
+    public Stream<Integer> toStream(SparseMatrix matrix) {
+        return delegate.toStream(matrix);
+    }
+
+    @Override
+    public SparseMatrix fromStream(Stream<Integer> stream) {
+        return delegate.fromStream(stream);
+    }
+
+    @Override
+    public SparseMatrix multiply(SparseMatrix first, SparseMatrix second) {
+        return getOrCalculate(new Key(Operation.MULTIPLY, first.fingerprint(), second.fingerprint()),
+                () -> delegate.multiply(first, second));
+    }
+
+    public SparseMatrix transpose(SparseMatrix matrix) {
+        return getOrCalculate(new Key(Operation.TRANSPOSE, matrix.fingerprint(), 0),
+                matrix::transposedMatrix);
+    }
+
+    public SparseMatrix power(SparseMatrix matrix, int exponent) {
+        //first power is the operand itself, caching it would keep the caller's matrix alive
+        if (exponent == 1) {
+            return matrix.power(exponent);
+        }
+        return getOrCalculate(new Key(Operation.POWER, matrix.fingerprint(), exponent),
+                () -> matrix.power(exponent));
+    }
+
+    public synchronized long getCachedBytes() {
+        return cachedBytes;
+    }
+
+    public synchronized int getNumberOfCachedMatrices() {
+        return entries.size();
+    }
+
+    // calculation is done outside of the lock, so concurrent misses of the same key may calculate it twice
+    private SparseMatrix getOrCalculate(Key key, Supplier<SparseMatrix> calculation) {
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry != null) {
+                entry.frequency++;
+                return entry.matrix;
+            }
+        }
+        SparseMatrix matrix = calculation.get();
+        put(key, matrix);
+        return matrix;
+    }
+
+    private synchronized void put(Key key, SparseMatrix matrix) {
+        long weight = weight(matrix);
+        if (weight > maxCachedBytes || entries.containsKey(key)) {
+            return;
+        }
+        while (cachedBytes + weight > maxCachedBytes) {
+            evict();
+        }
+        entries.put(key, new Entry(matrix, weight));
+        cachedBytes += weight;
+    }
+
+    private void evict() {
+        Iterator<Map.Entry<Key, Entry>> iterator = entries.entrySet().iterator();
+        Map.Entry<Key, Entry> victim = iterator.next();
+        if (evictionPolicy == EvictionPolicy.LFU) {
+            // ties are resolved in favour of the least recently used entry because it comes first
+            while (iterator.hasNext()) {
+                Map.Entry<Key, Entry> candidate = iterator.next();
+                if (candidate.getValue().frequency < victim.getValue().frequency) {
+                    victim = candidate;
+                }
+            }
+        }
+        LOGGER.debug("Evicting cached " + victim.getKey().operation + " result of " + victim.getValue().weight
+                + " bytes.");
+        entries.remove(victim.getKey());
+        cachedBytes -= victim.getValue().weight;
+    }
+
+    //memory taken by CSR arrays of the matrix
+    static long weight(SparseMatrix matrix) {
+        return 4L * (matrix.getNumberOfRows() + 1) + 8L * matrix.getNumberOfNonZeroElements();
+    }
+
+    public enum EvictionPolicy {
+        LRU, LFU
+    }
+
+    private enum Operation {
+        MULTIPLY, TRANSPOSE, POWER
+    }
+
+    private static class Key {
+        private final Operation operation;
+        private final long firstFingerprint;
+        //fingerprint of the second operand or exponent
+        private final long secondArgument;
+
+        Key(Operation operation, long firstFingerprint, long secondArgument) {
+            this.operation = operation;
+            this.firstFingerprint = firstFingerprint;
+            this.secondArgument = secondArgument;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return operation == key.operation && firstFingerprint == key.firstFingerprint
+                    && secondArgument == key.secondArgument;
+        }
+
+        @Override
+        public int hashCode() {
+            long hash = firstFingerprint * 31 + secondArgument;
+            return (int) (hash ^ (hash >>> 32)) * 31 + operation.ordinal();
+        }
+    }
+
+    private static class Entry {
+        private final SparseMatrix matrix;
+        private final long weight;
+        private int frequency = 1;
+
+        Entry(SparseMatrix matrix, long weight) {
+            this.matrix = matrix;
+            this.weight = weight;
+        }
+    }
+}
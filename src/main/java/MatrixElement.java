@@ -1,7 +1,7 @@
 class MatrixElement implements Comparable<MatrixElement> {
     private final int row;
     private final int column;
-    private volatile int value;
+    private final int value;
 
     MatrixElement(int row, int column, int value) {
         this.row = row;
@@ -21,10 +21,6 @@ class MatrixElement implements Comparable<MatrixElement> {
         return value;
     }
 
-    void changeValue(int diff) {
-        value += diff;
-    }
-
     @Override
     public int compareTo(MatrixElement o) {
         if (row != o.row) {
@@ -0,0 +1,109 @@
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Multiplies matrices after reordering them for better cache locality and maps the result back to original indexes.
+ * Ordering is computed for rows of the first matrix. When the first matrix is square the same permutation is applied
+ * to its columns and to rows of the second matrix, so rows of the second matrix read while calculating one resulting
+ * row lie close to each other in memory.
+ * By default square matrices are ordered by reverse Cuthill-McKee and other matrices by degree sort,
+ * as graph orderings are defined only for square matrices.
+ * Computing an ordering costs more than one multiplication saves, so orderings of recently used first matrices are
+ * remembered by {@link SparseMatrix#fingerprint}; repeated multiplications by the same matrix reuse them.
+ * Any permutation gives the correct product, so a fingerprint collision can only cost locality.
+ */
+public class ReorderingSparseMatrixSupportImpl implements SparseMatrixSupport<SparseMatrix> {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReorderingSparseMatrixSupportImpl.class);
+    private static final int DEFAULT_MAX_CACHED_ORDERINGS = 16;
+
+    private final SparseMatrixSupport<SparseMatrix> delegate;
+    private final Function<SparseMatrix, int[]> ordering;
+    //access ordered, so the least recently used ordering is dropped first
+    private final Map<Long, int[]> orderings;
+
+    public ReorderingSparseMatrixSupportImpl() {
+        this(new SparseMatrixSupportImpl(), ReorderingSparseMatrixSupportImpl::defaultOrdering);
+    }
+
+    public ReorderingSparseMatrixSupportImpl(SparseMatrixSupport<SparseMatrix> delegate,
+                                             Function<SparseMatrix, int[]> ordering) {
+        this(delegate, ordering, DEFAULT_MAX_CACHED_ORDERINGS);
+    }
+
+    public ReorderingSparseMatrixSupportImpl(SparseMatrixSupport<SparseMatrix> delegate,
+                                             Function<SparseMatrix, int[]> ordering, int maxCachedOrderings) {
+        if (maxCachedOrderings < 0) {
+            throw new IllegalArgumentException("Number of cached orderings must not be negative.");
+        }
+        this.delegate = delegate;
+        this.ordering = ordering;
+        this.orderings = new LinkedHashMap<Long, int[]>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, int[]> eldest) {
+                return size() > maxCachedOrderings;
+            }
+        };
+    }
+
+    @Override
+    public Stream<Integer> toStream(SparseMatrix matrix) {
+        return delegate.toStream(matrix);
+    }
+
+    @Override
+    public SparseMatrix fromStream(Stream<Integer> stream) {
+        return delegate.fromStream(stream);
+    }
+
+    @Override
+    public SparseMatrix multiply(SparseMatrix first, SparseMatrix second) {
+        if (first.getNumberOfColumns() != second.getNumberOfRows()) {
+            throw new IllegalArgumentException("Number of columns of the first matrix must be equal to number of rows of the second.");
+        }
+        LOGGER.info("Reordering of matrices before multiplication has been started.");
+        int[] permutation = getOrdering(first);
+        SparseMatrix reorderedFirst;
+        SparseMatrix reorderedSecond;
+        if (first.getNumberOfRows() == first.getNumberOfColumns()) {
+            reorderedFirst = first.permute(permutation, permutation);
+            reorderedSecond = second.permuteRows(permutation);
+        } else {
+            reorderedFirst = first.permuteRows(permutation);
+            reorderedSecond = second;
+        }
+        LOGGER.info("Reordering of matrices before multiplication has been finished.");
+        return delegate.multiply(reorderedFirst, reorderedSecond)
+                .permuteRows(SparseMatrixReordering.inverse(permutation));
+    }
+
+    public synchronized int getNumberOfCachedOrderings() {
+        return orderings.size();
+    }
+
+    // calculation is done outside of the lock, so concurrent misses of the same matrix may calculate it twice
+    private int[] getOrdering(SparseMatrix matrix) {
+        long fingerprint = matrix.fingerprint();
+        synchronized (this) {
+            int[] permutation = orderings.get(fingerprint);
+            if (permutation != null) {
+                return permutation;
+            }
+        }
+        int[] permutation = ordering.apply(matrix);
+        synchronized (this) {
+            orderings.put(fingerprint, permutation);
+        }
+        return permutation;
+    }
+
+    private static int[] defaultOrdering(SparseMatrix matrix) {
+        return matrix.getNumberOfRows() == matrix.getNumberOfColumns()
+                ? SparseMatrixReordering.reverseCuthillMcKee(matrix)
+                : SparseMatrixReordering.degreeSort(matrix);
+    }
+}
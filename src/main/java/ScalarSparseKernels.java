@@ -0,0 +1,30 @@
+/**
+ * Scalar implementations of the inner loops used by {@link SparseKernels}. Used on every JVM where
+ * vectorised implementation is not available.
+ */
+final class ScalarSparseKernels {
+
+    private ScalarSparseKernels() {
+    }
+
+    static void scatterAdd(int[] accumulator, int multiplier, int[] columns, int[] values, int from, int to) {
+        for (int t = from; t < to; t++) {
+            accumulator[columns[t]] += multiplier * values[t];
+        }
+    }
+
+    static void gatherAndClear(int[] accumulator, int[] columns, int count, int[] output, int outputOffset) {
+        for (int t = 0; t < count; t++) {
+            output[outputOffset + t] = accumulator[columns[t]];
+            accumulator[columns[t]] = 0;
+        }
+    }
+
+    static int dot(int[] values, int[] columns, int from, int to, int[] vector) {
+        int result = 0;
+        for (int t = from; t < to; t++) {
+            result += values[t] * vector[columns[t]];
+        }
+        return result;
+    }
+}
@@ -0,0 +1,285 @@
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.security.SecureRandom;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Multiplies matrices in separate worker JVMs launched on the same machine.
+ * The first matrix is split into row shards the same way {@link SparseMatrixSupportImpl} splits it between threads,
+ * every shard together with the second matrix is sent to its own worker over a loopback socket and
+ * resulting row blocks are glued back in order. Shard of a failed worker is retried in a fresh worker.
+ * Workers send heartbeats while they read and calculate a shard, so a worker is treated as failed when it stays
+ * silent longer than the silence timeout or does not return its rows before the shard deadline.
+ * Every worker gets a random token on its command line and must present it right after connecting;
+ * other local processes connecting to the port are rejected before anything is sent to them.
+ */
+public class ShardedSparseMatrixSupportImpl implements SparseMatrixSupport<SparseMatrix> {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ShardedSparseMatrixSupportImpl.class);
+    private static final int ACCEPT_POLL_MILLIS = 200;
+    private static final int DEFAULT_SILENCE_TIMEOUT_MILLIS = 30_000;
+    private static final long DEFAULT_SHARD_DEADLINE_MILLIS = 3_600_000;
+
+    private final SparseMatrixSupportImpl localSupport = new SparseMatrixSupportImpl();
+    private final SecureRandom random = new SecureRandom();
+    private final int numberOfWorkers;
+    private final int threadsPerWorker;
+    private final int maxAttempts;
+    private final long connectTimeoutMillis;
+    //longest time worker may send nothing, not even a heartbeat
+    private final int silenceTimeoutMillis;
+    //longest time of the whole exchange with one worker, from connection to the received rows
+    private final long shardDeadlineMillis;
+    private final WorkerLauncher workerLauncher;
+
+    public ShardedSparseMatrixSupportImpl() {
+        this(4, 2, 3);
+    }
+
+    public ShardedSparseMatrixSupportImpl(int numberOfWorkers, int threadsPerWorker, int maxAttempts) {
+        this(numberOfWorkers, threadsPerWorker, maxAttempts, DEFAULT_SILENCE_TIMEOUT_MILLIS,
+                DEFAULT_SHARD_DEADLINE_MILLIS);
+    }
+
+    public ShardedSparseMatrixSupportImpl(int numberOfWorkers, int threadsPerWorker, int maxAttempts,
+                                          int silenceTimeoutMillis, long shardDeadlineMillis) {
+        this(numberOfWorkers, threadsPerWorker, maxAttempts, 30_000, silenceTimeoutMillis, shardDeadlineMillis,
+                ShardedSparseMatrixSupportImpl::launchLocalWorker);
+    }
+
+    ShardedSparseMatrixSupportImpl(int numberOfWorkers, int threadsPerWorker, int maxAttempts,
+                                   long connectTimeoutMillis, int silenceTimeoutMillis, long shardDeadlineMillis,
+                                   WorkerLauncher workerLauncher) {
+        if (numberOfWorkers < 1 || threadsPerWorker < 1 || maxAttempts < 1 || silenceTimeoutMillis < 1
+                || shardDeadlineMillis < 1) {
+            throw new IllegalArgumentException("Number of workers, threads per worker, attempts, silence timeout and "
+                    + "shard deadline must be positive.");
+        }
+        this.numberOfWorkers = numberOfWorkers;
+        this.threadsPerWorker = threadsPerWorker;
+        this.maxAttempts = maxAttempts;
+        this.connectTimeoutMillis = connectTimeoutMillis;
+        this.silenceTimeoutMillis = silenceTimeoutMillis;
+        this.shardDeadlineMillis = shardDeadlineMillis;
+        this.workerLauncher = workerLauncher;
+    }
+
+    @Override
+    public Stream<Integer> toStream(SparseMatrix matrix) {
+        return localSupport.toStream(matrix);
+    }
+
+    @Override
+    public SparseMatrix fromStream(Stream<Integer> stream) {
+        return localSupport.fromStream(stream);
+    }
+
+    @Override
+    //every shard is multiplied in its own worker process
+    public SparseMatrix multiply(SparseMatrix first, SparseMatrix second) {
+        if (first.getNumberOfColumns() != second.getNumberOfRows()) {
+            throw new IllegalArgumentException("Number of columns of the first matrix must be equal to number of rows of the second.");
+        }
+        if (first.getNumberOfRows() == 0) {
+            return SparseMatrix.concatenateRows(second.getNumberOfColumns(), Collections.emptyList());
+        }
+
+        LOGGER.info("Sharded calculation of resulting multiply matrix has been started.");
+        int numberOfShards = numberOfWorkers > first.getNumberOfRows() ? first.getNumberOfRows() : numberOfWorkers;
+        ExecutorService executorService = Executors.newFixedThreadPool(numberOfShards);
+        //shards are written from separate threads, so a worker that stops reading cannot block reading its replies
+        ExecutorService sendingService = Executors.newFixedThreadPool(numberOfShards);
+        try {
+            List<SparseMatrix> blocks = IntStream.range(0, numberOfShards)
+                    .mapToObj(i -> executorService.submit(() -> calculateShard(sendingService, first, second,
+                            SparseMatrixSupportImpl.calcStartRow(i, first.getNumberOfRows(), numberOfShards),
+                            SparseMatrixSupportImpl.calcEndRow(i, first.getNumberOfRows(), numberOfShards))))
+                    .collect(Collectors.toList())
+                    .stream()
+                    .map(ShardedSparseMatrixSupportImpl::getBlock)
+                    .collect(Collectors.toList());
+            SparseMatrix resultMatrix = SparseMatrix.concatenateRows(second.getNumberOfColumns(), blocks);
+            LOGGER.info("Sharded calculation of resulting multiply matrix has been finished.");
+            return resultMatrix;
+        } finally {
+            executorService.shutdownNow();
+            sendingService.shutdownNow();
+        }
+    }
+
+    private static SparseMatrix getBlock(Future<SparseMatrix> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException | ExecutionException e) {
+            throw new RuntimeException("Error occurred during calculation of matrix rows.", e);
+        }
+    }
+
+    private SparseMatrix calculateShard(ExecutorService sendingService, SparseMatrix first, SparseMatrix second,
+                                        int startRowInclusive, int endRowExclusive) throws IOException {
+        IOException lastFailure = null;
+        for (int attempt = 1; attempt <= maxAttempts; attempt++) {
+            try {
+                return calculateShardInWorker(sendingService, first, second, startRowInclusive, endRowExclusive);
+            } catch (IOException e) {
+                LOGGER.warn("Attempt " + attempt + " to calculate rows from " + startRowInclusive + " to "
+                        + endRowExclusive + " has failed.", e);
+                lastFailure = e;
+            }
+        }
+        throw new IOException("Rows from " + startRowInclusive + " to " + endRowExclusive + " were not calculated in "
+                + maxAttempts + " attempts.", lastFailure);
+    }
+
+    private SparseMatrix calculateShardInWorker(ExecutorService sendingService, SparseMatrix first, SparseMatrix second,
+                                                int startRowInclusive, int endRowExclusive) throws IOException {
+        try (ServerSocket serverSocket = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+            long token = random.nextLong();
+            Process worker = workerLauncher.launch(serverSocket.getLocalPort(), token, threadsPerWorker,
+                    heartbeatIntervalMillis());
+            forwardOutput(worker);
+            // closing the socket on any failure also stops the sending thread blocked in a write
+            try (Socket socket = acceptWorker(serverSocket, worker, token);
+                 DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+                 DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()))) {
+                socket.setSoTimeout(silenceTimeoutMillis);
+                long deadline = System.currentTimeMillis() + shardDeadlineMillis;
+                LOGGER.info("Sending rows from " + startRowInclusive + " to " + endRowExclusive + " to worker.");
+                Future<?> sending = sendingService.submit(() -> {
+                    second.writeTo(out);
+                    first.writeRowsTo(out, startRowInclusive, endRowExclusive);
+                    out.flush();
+                    return null;
+                });
+                SparseMatrix block = readBlock(in, deadline);
+                getSent(sending);
+                if (block.getNumberOfRows() != endRowExclusive - startRowInclusive) {
+                    throw new IOException("Worker returned " + block.getNumberOfRows() + " rows instead of "
+                            + (endRowExclusive - startRowInclusive));
+                }
+                return block;
+            } finally {
+                worker.destroy();
+            }
+        }
+    }
+
+    //heartbeats are sent several times per silence timeout, so one late heartbeat does not fail the worker
+    private int heartbeatIntervalMillis() {
+        return Math.max(1, silenceTimeoutMillis / 4);
+    }
+
+    private SparseMatrix readBlock(DataInputStream in, long deadline) throws IOException {
+        while (true) {
+            byte message = in.readByte();
+            if (message == SparseMatrixWorker.RESULT) {
+                return SparseMatrix.readFrom(in);
+            }
+            if (message != SparseMatrixWorker.HEARTBEAT) {
+                throw new IOException("Worker sent unknown message " + message);
+            }
+            if (System.currentTimeMillis() > deadline) {
+                throw new IOException("Worker has not returned rows in " + shardDeadlineMillis + " ms.");
+            }
+        }
+    }
+
+    //worker replies only after reading the whole shard, so sending is finished or about to finish here
+    private static void getSent(Future<?> sending) throws IOException {
+        try {
+            sending.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while sending rows to worker.", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Rows were not sent to worker.", e.getCause());
+        }
+    }
+
+    private Socket acceptWorker(ServerSocket serverSocket, Process worker, long token) throws IOException {
+        serverSocket.setSoTimeout(ACCEPT_POLL_MILLIS);
+        long deadline = System.currentTimeMillis() + connectTimeoutMillis;
+        while (System.currentTimeMillis() <= deadline) {
+            try {
+                Socket socket = serverSocket.accept();
+                if (presentsToken(socket, token)) {
+                    return socket;
+                }
+                LOGGER.warn("Rejected connection from port " + socket.getPort() + " without worker token.");
+                socket.close();
+            } catch (SocketTimeoutException e) {
+                if (!worker.isAlive()) {
+                    throw new IOException("Worker exited with code " + worker.exitValue() + " before connecting.");
+                }
+            }
+        }
+        throw new IOException("Worker has not connected in " + connectTimeoutMillis + " ms.");
+    }
+
+    //token is read without buffering, so nothing after it is consumed from the socket
+    private boolean presentsToken(Socket socket, long token) {
+        try {
+            socket.setSoTimeout(silenceTimeoutMillis);
+            return new DataInputStream(socket.getInputStream()).readLong() == token;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    static Process launchLocalWorker(int port, long token, int numberOfThreads, int heartbeatIntervalMillis)
+            throws IOException {
+        return launchLocalJvm(SparseMatrixWorker.class, port, token, numberOfThreads, heartbeatIntervalMillis);
+    }
+
+    //starts main class with the classpath of the current JVM
+    static Process launchLocalJvm(Class<?> mainClass, int port, long token, int numberOfThreads,
+                                  int heartbeatIntervalMillis) throws IOException {
+        String javaExecutable = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+        return new ProcessBuilder(javaExecutable, "-cp", System.getProperty("java.class.path"),
+                mainClass.getName(), String.valueOf(port), String.valueOf(token), String.valueOf(numberOfThreads),
+                String.valueOf(heartbeatIntervalMillis))
+                .redirectErrorStream(true)
+                .start();
+    }
+
+    //worker output goes to the coordinator log; writing it into the coordinator stdout would break surefire channel
+    private static void forwardOutput(Process worker) {
+        Thread forwarder = new Thread(() -> {
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(worker.getInputStream()))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    LOGGER.debug("Worker: " + line);
+                }
+            } catch (IOException e) {
+                LOGGER.debug("Output of worker is not available anymore.", e);
+            }
+        }, "sparse-matrix-worker-output");
+        forwarder.setDaemon(true);
+        forwarder.start();
+    }
+
+    @FunctionalInterface
+    interface WorkerLauncher {
+        Process launch(int port, long token, int numberOfThreads, int heartbeatIntervalMillis) throws IOException;
+    }
+}
@@ -0,0 +1,39 @@
+/**
+ * Hot inner loops of sparse matrix arithmetic. This version is compiled for Java 8 and always uses scalar code;
+ * multi-release jar replaces it on Java 17+ with the version from src/main/java17 that can use Vector API.
+ */
+final class SparseKernels {
+
+    private SparseKernels() {
+    }
+
+    /**
+     * Tells whether Vector API kernels are used; always false in this version.
+     */
+    static boolean vectorKernelsEnabled() {
+        return false;
+    }
+
+    /**
+     * Adds multiplier * values[t] to accumulator[columns[t]] for every t from from to to.
+     * Columns in the range must be unique.
+     */
+    static void scatterAdd(int[] accumulator, int multiplier, int[] columns, int[] values, int from, int to) {
+        ScalarSparseKernels.scatterAdd(accumulator, multiplier, columns, values, from, to);
+    }
+
+    /**
+     * Copies accumulator[columns[t]] into output[outputOffset + t] for first count columns and resets copied
+     * accumulator cells to zero. Columns must be unique.
+     */
+    static void gatherAndClear(int[] accumulator, int[] columns, int count, int[] output, int outputOffset) {
+        ScalarSparseKernels.gatherAndClear(accumulator, columns, count, output, outputOffset);
+    }
+
+    /**
+     * Dot product of a sparse row stored in values and columns from from to to with a dense vector.
+     */
+    static int dot(int[] values, int[] columns, int from, int to, int[] vector) {
+        return ScalarSparseKernels.dot(values, columns, from, to, vector);
+    }
+}
@@ -1,5 +1,9 @@
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
 import java.util.*;
 import java.util.function.Consumer;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 public class SparseMatrix {
@@ -10,6 +14,10 @@ public class SparseMatrix {
     private final int[] values;
     private final int numberOfRows;
     private final int numberOfColumns;
+    //index of the zeroth row of this matrix in iArray, it is not zero only for row range views
+    private final int firstRow;
+    //zero means fingerprint is not calculated yet; calculation is deterministic, so racy caching is safe
+    private volatile long fingerprint;
 
     public SparseMatrix(Stream<Integer> stream) {
         Iterator<Integer> iterator = stream.sequential().iterator();
@@ -20,6 +28,7 @@ public class SparseMatrix {
         iArray = sparseMatrixCreationResult.first;
         jArray = sparseMatrixCreationResult.second;
         values = sparseMatrixCreationResult.third;
+        firstRow = 0;
     }
 
     public SparseMatrix(int numberOfRows, int numberOfColumns, Stream<MatrixElement> stream) {
@@ -30,19 +39,27 @@ public class SparseMatrix {
         iArray = sparseMatrixCreationResult.first;
         jArray = sparseMatrixCreationResult.second;
         values = sparseMatrixCreationResult.third;
+        firstRow = 0;
+    }
+
+    private SparseMatrix(int numberOfRows, int numberOfColumns, int[] iArray, int[] jArray, int[] values) {
+        this(numberOfRows, numberOfColumns, iArray, jArray, values, 0);
+    }
+
+    private SparseMatrix(int numberOfRows, int numberOfColumns, int[] iArray, int[] jArray, int[] values,
+                         int firstRow) {
+        this.numberOfRows = numberOfRows;
+        this.numberOfColumns = numberOfColumns;
+        this.iArray = iArray;
+        this.jArray = jArray;
+        this.values = values;
+        this.firstRow = firstRow;
     }
 
     public int getValue(int rowNumber, int columnNumber) {
-        if (rowNumber > numberOfRows - 1) {
-            throw new IllegalArgumentException("Matrix contains " + numberOfRows + " rows; " +
-                    "you can't retrieve row with index " + rowNumber);
-        }
-        if (columnNumber > numberOfColumns - 1) {
-            throw new IllegalArgumentException("Matrix contains " + numberOfColumns + " columns; " +
-                    "you can't retrieve column with index " + columnNumber);
-        }
-        int rowStart = iArray[rowNumber];
-        int rowFinish = iArray[rowNumber + 1];
+        checkIndexes(rowNumber, columnNumber);
+        int rowStart = rowStart(rowNumber);
+        int rowFinish = rowStart(rowNumber + 1);
         if (rowFinish > rowStart) {
             int valueIndex = Arrays.binarySearch(jArray, rowStart, rowFinish, columnNumber);
             if (valueIndex > -1) {
@@ -52,6 +69,102 @@ public class SparseMatrix {
         return 0;
     }
 
+    /**
+     * Retrieves values for a batch of (rowNumbers[k], columnNumbers[k]) pairs.
+     * Pairs are grouped by row and sorted by column, so every requested row is walked once with galloping search
+     * instead of doing a separate binary search over the row for every pair.
+     * @return array where k-th element is the value of k-th pair
+     */
+    public int[] getValues(int[] rowNumbers, int[] columnNumbers) {
+        return getValues(rowNumbers, columnNumbers, false);
+    }
+
+    /**
+     * Same as {@link #getValues(int[], int[])}, but sorts pairs and walks rows in parallel. Pays off for big batches.
+     */
+    public int[] getValuesInParallel(int[] rowNumbers, int[] columnNumbers) {
+        return getValues(rowNumbers, columnNumbers, true);
+    }
+
+    private int[] getValues(int[] rowNumbers, int[] columnNumbers, boolean parallel) {
+        if (rowNumbers.length != columnNumbers.length) {
+            throw new IllegalArgumentException("Number of row indexes must be equal to number of column indexes.");
+        }
+        // row index is kept in high bits and position of the pair in low bits, so sorting groups pairs by row
+        long[] pairsOrderedByRow = new long[rowNumbers.length];
+        for (int k = 0; k < rowNumbers.length; k++) {
+            checkIndexes(rowNumbers[k], columnNumbers[k]);
+            pairsOrderedByRow[k] = ((long) rowNumbers[k] << 32) | k;
+        }
+        if (parallel) {
+            Arrays.parallelSort(pairsOrderedByRow);
+        } else {
+            Arrays.sort(pairsOrderedByRow);
+        }
+        int[] rowGroupStarts = new int[pairsOrderedByRow.length + 1];
+        int numberOfRowGroups = 0;
+        for (int k = 0; k < pairsOrderedByRow.length; k++) {
+            if (k == 0 || pairsOrderedByRow[k] >>> 32 != pairsOrderedByRow[k - 1] >>> 32) {
+                rowGroupStarts[numberOfRowGroups++] = k;
+            }
+        }
+        rowGroupStarts[numberOfRowGroups] = pairsOrderedByRow.length;
+
+        int[] result = new int[rowNumbers.length];
+        IntStream rowGroups = IntStream.range(0, numberOfRowGroups);
+        (parallel ? rowGroups.parallel() : rowGroups).forEach(group -> fillRowGroupValues(columnNumbers,
+                pairsOrderedByRow, rowGroupStarts[group], rowGroupStarts[group + 1], result));
+        return result;
+    }
+
+    private void fillRowGroupValues(int[] columnNumbers, long[] pairsOrderedByRow, int groupStart, int groupEnd,
+                                    int[] result) {
+        int rowNumber = (int) (pairsOrderedByRow[groupStart] >>> 32);
+        int rowFinish = rowStart(rowNumber + 1);
+        if (groupEnd - groupStart == 1) {
+            int k = (int) pairsOrderedByRow[groupStart];
+            int valueIndex = lowerBound(rowStart(rowNumber), rowFinish, columnNumbers[k]);
+            result[k] = valueIndex < rowFinish && jArray[valueIndex] == columnNumbers[k] ? values[valueIndex] : 0;
+            return;
+        }
+        long[] pairsOrderedByColumn = new long[groupEnd - groupStart];
+        for (int i = groupStart; i < groupEnd; i++) {
+            int k = (int) pairsOrderedByRow[i];
+            pairsOrderedByColumn[i - groupStart] = ((long) columnNumbers[k] << 32) | k;
+        }
+        Arrays.sort(pairsOrderedByColumn);
+        int valueIndex = rowStart(rowNumber);
+        for (long pair : pairsOrderedByColumn) {
+            int k = (int) pair;
+            valueIndex = gallop(valueIndex, rowFinish, columnNumbers[k]);
+            result[k] = valueIndex < rowFinish && jArray[valueIndex] == columnNumbers[k] ? values[valueIndex] : 0;
+        }
+    }
+
+    //exponential search starting from fromInclusive, returns index of the first column not less than columnNumber
+    private int gallop(int fromInclusive, int toExclusive, int columnNumber) {
+        int low = fromInclusive;
+        int high = fromInclusive;
+        int step = 1;
+        while (high < toExclusive && jArray[high] < columnNumber) {
+            low = high + 1;
+            high += step;
+            step <<= 1;
+        }
+        return lowerBound(low, Math.min(high, toExclusive), columnNumber);
+    }
+
+    private void checkIndexes(int rowNumber, int columnNumber) {
+        if (rowNumber < 0 || rowNumber > numberOfRows - 1) {
+            throw new IllegalArgumentException("Matrix contains " + numberOfRows + " rows; " +
+                    "you can't retrieve row with index " + rowNumber);
+        }
+        if (columnNumber < 0 || columnNumber > numberOfColumns - 1) {
+            throw new IllegalArgumentException("Matrix contains " + numberOfColumns + " columns; " +
+                    "you can't retrieve column with index " + columnNumber);
+        }
+    }
+
     public int getNumberOfRows() {
         return numberOfRows;
     }
@@ -60,44 +173,539 @@ public class SparseMatrix {
         return numberOfColumns;
     }
 
+    public int getNumberOfNonZeroElements() {
+        return rowStart(numberOfRows) - rowStart(0);
+    }
+
+    //index in element arrays where the given row starts; rowStart(numberOfRows) is the end of the last row
+    int rowStart(int rowNumber) {
+        return iArray[firstRow + rowNumber];
+    }
+
+    int columnAt(int elementIndex) {
+        return jArray[elementIndex];
+    }
+
+    /**
+     * Transposes the matrix by counting sort over columns, so time is proportional to number of non-zero elements
+     * plus matrix dimensions.
+     */
     public SparseMatrix transposedMatrix() {
-        MatrixElement[] transposedElements = new MatrixElement[values.length];
-        int currentRow = 0;
-        for (int i = 0; i < values.length; i++) {
-            if (iArray[currentRow + 1] == i) {
-                currentRow++;
+        int numberOfElements = getNumberOfNonZeroElements();
+        int[] newIArray = new int[numberOfColumns + 1];
+        for (int elementIndex = rowStart(0); elementIndex < rowStart(numberOfRows); elementIndex++) {
+            newIArray[jArray[elementIndex] + 1]++;
+        }
+        for (int j = 0; j < numberOfColumns; j++) {
+            newIArray[j + 1] += newIArray[j];
+        }
+        // rows are walked in order, so every new row gets ascending columns
+        int[] positions = Arrays.copyOf(newIArray, numberOfColumns);
+        int[] newJArray = new int[numberOfElements];
+        int[] newValues = new int[numberOfElements];
+        for (int i = 0; i < numberOfRows; i++) {
+            for (int elementIndex = rowStart(i); elementIndex < rowStart(i + 1); elementIndex++) {
+                int position = positions[jArray[elementIndex]]++;
+                newJArray[position] = i;
+                newValues[position] = values[elementIndex];
             }
-            transposedElements[i] = new MatrixElement(jArray[i], currentRow, values[i]);
         }
-        Arrays.parallelSort(transposedElements);
-        return new SparseMatrix(numberOfColumns, numberOfRows, Arrays.stream(transposedElements));
+        return new SparseMatrix(numberOfColumns, numberOfRows, newIArray, newJArray, newValues);
+    }
+
+    /**
+     * Returns a view of rows from startRowInclusive to endRowExclusive. The view shares arrays with this matrix,
+     * so no matrix elements are copied.
+     */
+    public SparseMatrix rowSlice(int startRowInclusive, int endRowExclusive) {
+        checkRange(startRowInclusive, endRowExclusive, numberOfRows, "rows");
+        return new SparseMatrix(endRowExclusive - startRowInclusive, numberOfColumns, iArray, jArray, values,
+                firstRow + startRowInclusive);
+    }
+
+    /**
+     * Copies columns from startColumnInclusive to endColumnExclusive into a new matrix. Bounds of every row are found
+     * by binary search, so only selected elements are visited.
+     */
+    public SparseMatrix columnSlice(int startColumnInclusive, int endColumnExclusive) {
+        checkRange(startColumnInclusive, endColumnExclusive, numberOfColumns, "columns");
+        int[] newIArray = new int[numberOfRows + 1];
+        int[] selectedRowStarts = new int[numberOfRows];
+        for (int i = 0; i < numberOfRows; i++) {
+            selectedRowStarts[i] = lowerBound(rowStart(i), rowStart(i + 1), startColumnInclusive);
+            int selectedRowEnd = lowerBound(selectedRowStarts[i], rowStart(i + 1), endColumnExclusive);
+            newIArray[i + 1] = newIArray[i] + selectedRowEnd - selectedRowStarts[i];
+        }
+        int[] newJArray = new int[newIArray[numberOfRows]];
+        int[] newValues = new int[newIArray[numberOfRows]];
+        for (int i = 0; i < numberOfRows; i++) {
+            for (int from = selectedRowStarts[i], to = newIArray[i]; to < newIArray[i + 1]; from++, to++) {
+                newJArray[to] = jArray[from] - startColumnInclusive;
+                newValues[to] = values[from];
+            }
+        }
+        return new SparseMatrix(numberOfRows, endColumnExclusive - startColumnInclusive, newIArray, newJArray,
+                newValues);
+    }
+
+    public SparseMatrix submatrix(int startRowInclusive, int endRowExclusive, int startColumnInclusive,
+                                  int endColumnExclusive) {
+        return rowSlice(startRowInclusive, endRowExclusive).columnSlice(startColumnInclusive, endColumnExclusive);
+    }
+
+    /**
+     * Copies given rows into a new matrix in the given order; rows may repeat.
+     */
+    public SparseMatrix selectRows(int[] rowNumbers) {
+        int[] newIArray = new int[rowNumbers.length + 1];
+        for (int i = 0; i < rowNumbers.length; i++) {
+            checkRange(rowNumbers[i], rowNumbers[i] + 1, numberOfRows, "rows");
+            newIArray[i + 1] = newIArray[i] + rowStart(rowNumbers[i] + 1) - rowStart(rowNumbers[i]);
+        }
+        int[] newJArray = new int[newIArray[rowNumbers.length]];
+        int[] newValues = new int[newIArray[rowNumbers.length]];
+        for (int i = 0; i < rowNumbers.length; i++) {
+            System.arraycopy(jArray, rowStart(rowNumbers[i]), newJArray, newIArray[i], newIArray[i + 1] - newIArray[i]);
+            System.arraycopy(values, rowStart(rowNumbers[i]), newValues, newIArray[i], newIArray[i + 1] - newIArray[i]);
+        }
+        return new SparseMatrix(rowNumbers.length, numberOfColumns, newIArray, newJArray, newValues);
+    }
+
+    /**
+     * Copies given columns into a new matrix in the given order; a column may be selected several times.
+     * Positions of every column are grouped by counting sort, so time is proportional to number of non-zero
+     * elements plus number of columns plus size of the result.
+     */
+    public SparseMatrix selectColumns(int[] columnNumbers) {
+        int[] positionStarts = new int[numberOfColumns + 1];
+        boolean ascending = true;
+        for (int i = 0; i < columnNumbers.length; i++) {
+            checkRange(columnNumbers[i], columnNumbers[i] + 1, numberOfColumns, "columns");
+            positionStarts[columnNumbers[i] + 1]++;
+            ascending &= i == 0 || columnNumbers[i - 1] <= columnNumbers[i];
+        }
+        for (int column = 0; column < numberOfColumns; column++) {
+            positionStarts[column + 1] += positionStarts[column];
+        }
+        int[] positions = new int[columnNumbers.length];
+        int[] nextPositions = Arrays.copyOf(positionStarts, numberOfColumns);
+        for (int i = 0; i < columnNumbers.length; i++) {
+            positions[nextPositions[columnNumbers[i]]++] = i;
+        }
+        int[] newIArray = new int[numberOfRows + 1];
+        int[] newJArray = new int[DEFAULT_SIZE];
+        int[] newValues = new int[DEFAULT_SIZE];
+        int numberOfElements = 0;
+        for (int i = 0; i < numberOfRows; i++) {
+            for (int elementIndex = rowStart(i); elementIndex < rowStart(i + 1); elementIndex++) {
+                int column = jArray[elementIndex];
+                for (int p = positionStarts[column]; p < positionStarts[column + 1]; p++) {
+                    if (numberOfElements == newValues.length) {
+                        newJArray = Arrays.copyOf(newJArray, numberOfElements * 2);
+                        newValues = Arrays.copyOf(newValues, numberOfElements * 2);
+                    }
+                    newJArray[numberOfElements] = positions[p];
+                    newValues[numberOfElements++] = values[elementIndex];
+                }
+            }
+            newIArray[i + 1] = numberOfElements;
+            if (!ascending) {
+                sortRowByColumns(newJArray, newValues, newIArray[i], newIArray[i + 1]);
+            }
+        }
+        return new SparseMatrix(numberOfRows, columnNumbers.length, newIArray,
+                Arrays.copyOf(newJArray, numberOfElements), Arrays.copyOf(newValues, numberOfElements));
+    }
+
+    /**
+     * Reorders rows and columns of the matrix. Element (rowPermutation[i], columnPermutation[j]) of this matrix
+     * becomes element (i, j) of the result. Rows of the result are kept sorted by counting sort over new columns,
+     * so time is proportional to number of non-zero elements plus matrix dimensions.
+     */
+    public SparseMatrix permute(int[] rowPermutation, int[] columnPermutation) {
+        SparseMatrixReordering.inverse(rowPermutation, numberOfRows);
+        int[] newColumnIndexes = SparseMatrixReordering.inverse(columnPermutation, numberOfColumns);
+        int numberOfElements = getNumberOfNonZeroElements();
+        int[] columnStarts = new int[numberOfColumns + 1];
+        for (int elementIndex = rowStart(0); elementIndex < rowStart(numberOfRows); elementIndex++) {
+            columnStarts[newColumnIndexes[jArray[elementIndex]] + 1]++;
+        }
+        for (int j = 0; j < numberOfColumns; j++) {
+            columnStarts[j + 1] += columnStarts[j];
+        }
+        // elements are distributed by new columns walking new rows in order, so every column gets ascending rows
+        int[] columnRows = new int[numberOfElements];
+        int[] columnValues = new int[numberOfElements];
+        int[] newIArray = new int[numberOfRows + 1];
+        for (int i = 0; i < numberOfRows; i++) {
+            int oldRow = rowPermutation[i];
+            for (int elementIndex = rowStart(oldRow); elementIndex < rowStart(oldRow + 1); elementIndex++) {
+                int position = columnStarts[newColumnIndexes[jArray[elementIndex]]]++;
+                columnRows[position] = i;
+                columnValues[position] = values[elementIndex];
+            }
+            newIArray[i + 1] = newIArray[i] + rowStart(oldRow + 1) - rowStart(oldRow);
+        }
+        // columnStarts now holds column ends; walking columns in order gives every row ascending columns
+        int[] rowPositions = Arrays.copyOf(newIArray, numberOfRows);
+        int[] newJArray = new int[numberOfElements];
+        int[] newValues = new int[numberOfElements];
+        for (int j = 0, position = 0; j < numberOfColumns; j++) {
+            for (; position < columnStarts[j]; position++) {
+                int rowPosition = rowPositions[columnRows[position]]++;
+                newJArray[rowPosition] = j;
+                newValues[rowPosition] = columnValues[position];
+            }
+        }
+        return new SparseMatrix(numberOfRows, numberOfColumns, newIArray, newJArray, newValues);
+    }
+
+    public SparseMatrix permuteRows(int[] rowPermutation) {
+        SparseMatrixReordering.inverse(rowPermutation, numberOfRows);
+        return selectRows(rowPermutation);
+    }
+
+    private static void sortRowByColumns(int[] columns, int[] rowValues, int fromInclusive, int toExclusive) {
+        long[] packedElements = new long[toExclusive - fromInclusive];
+        for (int i = fromInclusive; i < toExclusive; i++) {
+            packedElements[i - fromInclusive] = ((long) columns[i] << 32) | (rowValues[i] & 0xFFFFFFFFL);
+        }
+        Arrays.sort(packedElements);
+        for (int i = fromInclusive; i < toExclusive; i++) {
+            columns[i] = (int) (packedElements[i - fromInclusive] >>> 32);
+            rowValues[i] = (int) packedElements[i - fromInclusive];
+        }
+    }
+
+    private int lowerBound(int fromInclusive, int toExclusive, int columnNumber) {
+        int index = Arrays.binarySearch(jArray, fromInclusive, toExclusive, columnNumber);
+        return index > -1 ? index : -index - 1;
     }
 
+    private static void checkRange(int startInclusive, int endExclusive, int size, String dimension) {
+        if (startInclusive < 0 || endExclusive > size || startInclusive > endExclusive) {
+            throw new IllegalArgumentException("Matrix contains " + size + " " + dimension + "; " +
+                    "you can't select " + dimension + " from " + startInclusive + " to " + endExclusive);
+        }
+    }
+
+    /**
+     * @deprecated multiplication does not go row by row anymore; check the row with {@link #rowSlice}.
+     */
+    @Deprecated
     public boolean containsRow(int i) {
-        return iArray.length > i + 1 && iArray[i] < iArray[i + 1];
+        return i < numberOfRows && rowStart(i) < rowStart(i + 1);
     }
 
+    /**
+     * @deprecated multiply {@code rowSlice(i, i + 1)} by the second matrix with {@link SparseMatrixSupport#multiply}.
+     */
+    @Deprecated
     public Collection<MatrixElement> calculateMultipliedRow(SparseMatrix second, int i) {
-        Map<Integer, MatrixElement> rowValues = new HashMap<>();
-        for (int firstRowElementIndex = iArray[i]; firstRowElementIndex < iArray[i + 1]; firstRowElementIndex++) {
-            int k = jArray[firstRowElementIndex];
-            for (int secondRowElementIndex = second.iArray[k]; secondRowElementIndex < second.iArray[k + 1]; secondRowElementIndex++) {
-                int j = second.jArray[secondRowElementIndex];
-                int value = values[firstRowElementIndex] * second.values[secondRowElementIndex];
-                if (rowValues.containsKey(j)) {
-                    rowValues.get(j).changeValue(value);
-                } else {
-                    rowValues.put(j, new MatrixElement(i, j, value));
+        SparseMatrix row = rowSlice(i, i + 1).multiplySequentially(second);
+        List<MatrixElement> result = new ArrayList<>(row.getNumberOfNonZeroElements());
+        for (int elementIndex = row.rowStart(0); elementIndex < row.rowStart(1); elementIndex++) {
+            result.add(new MatrixElement(i, row.jArray[elementIndex], row.values[elementIndex]));
+        }
+        return result;
+    }
+
+    /**
+     * Multiplies this matrix by the second one in the calling thread using dense accumulator row.
+     * Result is not compacted and may keep oversized arrays; callers glue or copy it anyway.
+     */
+    SparseMatrix multiplySequentially(SparseMatrix second) {
+        if (numberOfColumns != second.numberOfRows) {
+            throw new IllegalArgumentException("Number of columns of the first matrix must be equal to number of rows of the second.");
+        }
+        return new MultiplyWorkspace(second.numberOfColumns).multiply(this, second);
+    }
+
+    /**
+     * Multiplies matrix by a dense column vector.
+     */
+    public int[] multiplyByVector(int[] vector) {
+        if (vector.length != numberOfColumns) {
+            throw new IllegalArgumentException("Vector length must be equal to number of columns " + numberOfColumns);
+        }
+        int[] result = new int[numberOfRows];
+        for (int i = 0; i < numberOfRows; i++) {
+            result[i] = SparseKernels.dot(values, jArray, rowStart(i), rowStart(i + 1), vector);
+        }
+        return result;
+    }
+
+    /**
+     * Raises square matrix to the given power by repeated multiplication. One dense accumulator row and two pairs
+     * of output buffers are allocated once and reused by all steps.
+     */
+    public SparseMatrix power(int exponent) {
+        if (numberOfRows != numberOfColumns) {
+            throw new IllegalArgumentException("Only square matrix can be raised to a power.");
+        }
+        if (exponent < 0) {
+            throw new IllegalArgumentException("Exponent must not be negative.");
+        }
+        if (exponent == 0) {
+            int[] iArray = IntStream.rangeClosed(0, numberOfRows).toArray();
+            int[] ones = new int[numberOfRows];
+            Arrays.fill(ones, 1);
+            return new SparseMatrix(numberOfRows, numberOfColumns, iArray,
+                    IntStream.range(0, numberOfRows).toArray(), ones);
+        }
+        MultiplyWorkspace workspace = new MultiplyWorkspace(numberOfColumns);
+        SparseMatrix result = this;
+        for (int step = 1; step < exponent; step++) {
+            result = workspace.multiply(result, this);
+        }
+        return result == this ? this : result.compacted();
+    }
+
+    //copies matrix into arrays of exact size, so it does not share buffers with anything else
+    private SparseMatrix compacted() {
+        int firstElementIndex = rowStart(0);
+        int[] newIArray = new int[numberOfRows + 1];
+        for (int i = 0; i <= numberOfRows; i++) {
+            newIArray[i] = rowStart(i) - firstElementIndex;
+        }
+        return new SparseMatrix(numberOfRows, numberOfColumns, newIArray,
+                Arrays.copyOfRange(jArray, firstElementIndex, rowStart(numberOfRows)),
+                Arrays.copyOfRange(values, firstElementIndex, rowStart(numberOfRows)));
+    }
+
+    /**
+     * Buffers reused between consecutive multiplications. Every product is written into the pair of output buffers
+     * that is not used by the previous product, so result of a step stays valid while the next step is calculated.
+     */
+    private static class MultiplyWorkspace {
+        //with vector kernels all cells are zero between rows and gatherAndClear resets cells used by a row;
+        //scalar code resets a cell when it is first touched by a row
+        private final int[] accumulator;
+        //row stamp of the last write into accumulator cell; avoids clearing accumulator for every row
+        private final int[] accumulatorStamps;
+        private final int[] touchedColumns;
+        private final int[][] iArrays = new int[2][];
+        private final int[][] jArrays = {new int[DEFAULT_SIZE], new int[DEFAULT_SIZE]};
+        private final int[][] valueArrays = {new int[DEFAULT_SIZE], new int[DEFAULT_SIZE]};
+        private final boolean vectorKernels = SparseKernels.vectorKernelsEnabled();
+        private int currentBuffer = 0;
+        private int stamp = 0;
+
+        MultiplyWorkspace(int numberOfColumns) {
+            accumulator = new int[numberOfColumns];
+            accumulatorStamps = new int[numberOfColumns];
+            touchedColumns = new int[numberOfColumns];
+        }
+
+        private SparseMatrix multiply(SparseMatrix first, SparseMatrix second) {
+            currentBuffer = 1 - currentBuffer;
+            if (iArrays[currentBuffer] == null || iArrays[currentBuffer].length < first.numberOfRows + 1) {
+                iArrays[currentBuffer] = new int[first.numberOfRows + 1];
+            }
+            int[] iArray = iArrays[currentBuffer];
+            int numberOfElements = 0;
+            for (int i = 0; i < first.numberOfRows; i++) {
+                int numberOfTouchedColumns = vectorKernels ? accumulateRowWithKernels(first, second, i)
+                        : accumulateRow(first, second, i);
+                Arrays.sort(touchedColumns, 0, numberOfTouchedColumns);
+                assureCapacity(numberOfElements + numberOfTouchedColumns);
+                numberOfElements = vectorKernels ? storeRowWithKernels(numberOfTouchedColumns, numberOfElements)
+                        : storeRow(numberOfTouchedColumns, numberOfElements);
+                iArray[i + 1] = numberOfElements;
+            }
+            return new SparseMatrix(first.numberOfRows, second.numberOfColumns, iArray, jArrays[currentBuffer],
+                    valueArrays[currentBuffer]);
+        }
+
+        //single pass over rows of the second matrix: columns are tracked and products are summed together
+        private int accumulateRow(SparseMatrix first, SparseMatrix second, int i) {
+            nextStamp();
+            int numberOfTouchedColumns = 0;
+            for (int firstRowElementIndex = first.rowStart(i); firstRowElementIndex < first.rowStart(i + 1); firstRowElementIndex++) {
+                int k = first.jArray[firstRowElementIndex];
+                int firstValue = first.values[firstRowElementIndex];
+                for (int secondRowElementIndex = second.rowStart(k); secondRowElementIndex < second.rowStart(k + 1); secondRowElementIndex++) {
+                    int j = second.jArray[secondRowElementIndex];
+                    if (accumulatorStamps[j] != stamp) {
+                        accumulatorStamps[j] = stamp;
+                        accumulator[j] = 0;
+                        touchedColumns[numberOfTouchedColumns++] = j;
+                    }
+                    accumulator[j] += firstValue * second.values[secondRowElementIndex];
+                }
+            }
+            return numberOfTouchedColumns;
+        }
+
+        //columns are tracked in a separate pass, so products can be summed by the vector scatter kernel
+        private int accumulateRowWithKernels(SparseMatrix first, SparseMatrix second, int i) {
+            nextStamp();
+            int numberOfTouchedColumns = 0;
+            for (int firstRowElementIndex = first.rowStart(i); firstRowElementIndex < first.rowStart(i + 1); firstRowElementIndex++) {
+                int k = first.jArray[firstRowElementIndex];
+                for (int secondRowElementIndex = second.rowStart(k); secondRowElementIndex < second.rowStart(k + 1); secondRowElementIndex++) {
+                    int j = second.jArray[secondRowElementIndex];
+                    if (accumulatorStamps[j] != stamp) {
+                        accumulatorStamps[j] = stamp;
+                        touchedColumns[numberOfTouchedColumns++] = j;
+                    }
                 }
+                SparseKernels.scatterAdd(accumulator, first.values[firstRowElementIndex], second.jArray, second.values,
+                        second.rowStart(k), second.rowStart(k + 1));
             }
+            return numberOfTouchedColumns;
+        }
+
+        private void nextStamp() {
+            if (stamp == Integer.MAX_VALUE) {
+                Arrays.fill(accumulatorStamps, 0);
+                stamp = 0;
+            }
+            stamp++;
+        }
+
+        // products may cancel each other out, such elements are not stored
+        private int storeRow(int numberOfTouchedColumns, int numberOfElements) {
+            int[] jArray = jArrays[currentBuffer];
+            int[] values = valueArrays[currentBuffer];
+            for (int t = 0; t < numberOfTouchedColumns; t++) {
+                int j = touchedColumns[t];
+                if (accumulator[j] != 0) {
+                    jArray[numberOfElements] = j;
+                    values[numberOfElements++] = accumulator[j];
+                }
+            }
+            return numberOfElements;
+        }
+
+        private int storeRowWithKernels(int numberOfTouchedColumns, int numberOfElements) {
+            int[] jArray = jArrays[currentBuffer];
+            int[] values = valueArrays[currentBuffer];
+            SparseKernels.gatherAndClear(accumulator, touchedColumns, numberOfTouchedColumns, values, numberOfElements);
+            int rowStart = numberOfElements;
+            for (int t = 0; t < numberOfTouchedColumns; t++) {
+                int value = values[rowStart + t];
+                if (value != 0) {
+                    jArray[numberOfElements] = touchedColumns[t];
+                    values[numberOfElements++] = value;
+                }
+            }
+            return numberOfElements;
+        }
+
+        private void assureCapacity(int numberOfElements) {
+            if (jArrays[currentBuffer].length < numberOfElements) {
+                int newSize = Math.max(numberOfElements, jArrays[currentBuffer].length * 2);
+                jArrays[currentBuffer] = Arrays.copyOf(jArrays[currentBuffer], newSize);
+                valueArrays[currentBuffer] = Arrays.copyOf(valueArrays[currentBuffer], newSize);
+            }
+        }
+    }
+
+    /**
+     * Content based identity of the matrix: matrices with equal dimensions and elements have equal fingerprints,
+     * including row range views and their copies. Calculated on first call and remembered.
+     */
+    public long fingerprint() {
+        long result = fingerprint;
+        if (result == 0) {
+            result = calculateFingerprint();
+            fingerprint = result;
         }
-        // storing elements in hashmap and sorting values later is faster then storing values in treemap and returning
-        // its values as result
-        List<MatrixElement> result = new ArrayList<>(rowValues.values());
-        Collections.sort(result);
         return result;
     }
 
+    private long calculateFingerprint() {
+        long hash = mixFingerprint(numberOfRows, numberOfColumns);
+        for (int i = 0; i < numberOfRows; i++) {
+            hash = mixFingerprint(hash, rowStart(i + 1) - rowStart(i));
+        }
+        for (int elementIndex = rowStart(0); elementIndex < rowStart(numberOfRows); elementIndex++) {
+            hash = mixFingerprint(mixFingerprint(hash, jArray[elementIndex]), values[elementIndex]);
+        }
+        // finalization step of MurmurHash3
+        hash ^= hash >>> 33;
+        hash *= 0xFF51AFD7ED558CCDL;
+        hash ^= hash >>> 33;
+        hash *= 0xC4CEB9FE1A85EC53L;
+        hash ^= hash >>> 33;
+        return hash == 0 ? 1 : hash;
+    }
+
+    private static long mixFingerprint(long hash, int value) {
+        return (hash ^ value) * 0x9E3779B97F4A7C15L + 0x632BE59BD9B4E019L;
+    }
+
+    //writes rows from startRowInclusive to endRowExclusive as a standalone matrix in CSR form
+    void writeRowsTo(DataOutputStream out, int startRowInclusive, int endRowExclusive) throws IOException {
+        int firstElementIndex = rowStart(startRowInclusive);
+        int numberOfElements = rowStart(endRowExclusive) - firstElementIndex;
+        out.writeInt(endRowExclusive - startRowInclusive);
+        out.writeInt(numberOfColumns);
+        out.writeInt(numberOfElements);
+        for (int i = startRowInclusive; i <= endRowExclusive; i++) {
+            out.writeInt(rowStart(i) - firstElementIndex);
+        }
+        for (int i = firstElementIndex; i < firstElementIndex + numberOfElements; i++) {
+            out.writeInt(jArray[i]);
+        }
+        for (int i = firstElementIndex; i < firstElementIndex + numberOfElements; i++) {
+            out.writeInt(values[i]);
+        }
+    }
+
+    void writeTo(DataOutputStream out) throws IOException {
+        writeRowsTo(out, 0, numberOfRows);
+    }
+
+    static SparseMatrix readFrom(DataInputStream in) throws IOException {
+        int numberOfRows = in.readInt();
+        int numberOfColumns = in.readInt();
+        int numberOfElements = in.readInt();
+        int[] iArray = readInts(in, numberOfRows + 1);
+        int[] jArray = readInts(in, numberOfElements);
+        int[] values = readInts(in, numberOfElements);
+        return new SparseMatrix(numberOfRows, numberOfColumns, iArray, jArray, values);
+    }
+
+    private static int[] readInts(DataInputStream in, int length) throws IOException {
+        int[] result = new int[length];
+        for (int i = 0; i < length; i++) {
+            result[i] = in.readInt();
+        }
+        return result;
+    }
+
+    //glues row blocks one under another, blocks must have the same number of columns
+    static SparseMatrix concatenateRows(int numberOfColumns, List<SparseMatrix> blocks) {
+        int numberOfRows = 0;
+        int numberOfElements = 0;
+        for (SparseMatrix block : blocks) {
+            if (block.numberOfColumns != numberOfColumns) {
+                throw new IllegalArgumentException("All row blocks must have " + numberOfColumns + " columns.");
+            }
+            numberOfRows += block.numberOfRows;
+            numberOfElements += block.getNumberOfNonZeroElements();
+        }
+        int[] iArray = new int[numberOfRows + 1];
+        int[] jArray = new int[numberOfElements];
+        int[] values = new int[numberOfElements];
+        int currentRow = 0;
+        int currentElement = 0;
+        for (SparseMatrix block : blocks) {
+            int blockFirstElementIndex = block.rowStart(0);
+            int blockNumberOfElements = block.getNumberOfNonZeroElements();
+            for (int i = 1; i <= block.numberOfRows; i++) {
+                iArray[currentRow + i] = currentElement + block.rowStart(i) - blockFirstElementIndex;
+            }
+            System.arraycopy(block.jArray, blockFirstElementIndex, jArray, currentElement, blockNumberOfElements);
+            System.arraycopy(block.values, blockFirstElementIndex, values, currentElement, blockNumberOfElements);
+            currentRow += block.numberOfRows;
+            currentElement += blockNumberOfElements;
+        }
+        return new SparseMatrix(numberOfRows, numberOfColumns, iArray, jArray, values);
+    }
+
     public Spliterator<Integer> spliterator() {
         return new SparseMatrixSpliterator();
     }
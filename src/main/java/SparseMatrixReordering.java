@@ -0,0 +1,192 @@
+import java.util.Arrays;
+
+/**
+ * Orderings that improve memory locality of matrix multiplication.
+ * Every method returns a permutation where element i is the old index of the row placed at position i;
+ * such permutation can be passed to {@link SparseMatrix#permute} and {@link SparseMatrix#permuteRows}.
+ * Orderings of square matrices treat the matrix as an adjacency matrix of an undirected graph,
+ * so nonzero (i, j) and (j, i) both connect nodes i and j.
+ */
+public final class SparseMatrixReordering {
+
+    private SparseMatrixReordering() {
+    }
+
+    /**
+     * Orders rows by ascending number of non-zero elements; rows with equal number of elements keep their order.
+     */
+    public static int[] degreeSort(SparseMatrix matrix) {
+        int numberOfRows = matrix.getNumberOfRows();
+        int maxDegree = 0;
+        for (int i = 0; i < numberOfRows; i++) {
+            maxDegree = Math.max(maxDegree, rowLength(matrix, i));
+        }
+        int[] degreeStarts = new int[maxDegree + 2];
+        for (int i = 0; i < numberOfRows; i++) {
+            degreeStarts[rowLength(matrix, i) + 1]++;
+        }
+        for (int d = 0; d <= maxDegree; d++) {
+            degreeStarts[d + 1] += degreeStarts[d];
+        }
+        int[] permutation = new int[numberOfRows];
+        for (int i = 0; i < numberOfRows; i++) {
+            permutation[degreeStarts[rowLength(matrix, i)]++] = i;
+        }
+        return permutation;
+    }
+
+    /**
+     * Reverse Cuthill-McKee ordering of a square matrix. Every connected component is traversed breadth-first from
+     * its node with the lowest degree, neighbours are visited in ascending degree order and the final order is
+     * reversed. Reduces bandwidth, so rows used together end up close to each other.
+     */
+    public static int[] reverseCuthillMcKee(SparseMatrix matrix) {
+        Graph graph = new Graph(matrix);
+        int[] order = graph.breadthFirstOrder(graph.size(), true);
+        for (int i = 0, j = order.length - 1; i < j; i++, j--) {
+            int tmp = order[i];
+            order[i] = order[j];
+            order[j] = tmp;
+        }
+        return order;
+    }
+
+    /**
+     * Graph growing partitioning of a square matrix: parts of equal size are grown one after another breadth-first
+     * from the lowest degree unassigned node, and nodes are ordered part by part.
+     */
+    public static int[] partitionOrdering(SparseMatrix matrix, int numberOfParts) {
+        if (numberOfParts < 1) {
+            throw new IllegalArgumentException("Number of parts must be positive.");
+        }
+        Graph graph = new Graph(matrix);
+        int partSize = (graph.size() + numberOfParts - 1) / numberOfParts;
+        return graph.breadthFirstOrder(Math.max(partSize, 1), false);
+    }
+
+    /**
+     * Returns inverse permutation, so result[permutation[i]] == i.
+     */
+    public static int[] inverse(int[] permutation) {
+        return inverse(permutation, permutation.length);
+    }
+
+    //also checks that permutation contains every index from 0 to size exactly once
+    static int[] inverse(int[] permutation, int size) {
+        if (permutation.length != size) {
+            throw new IllegalArgumentException("Permutation must contain " + size + " indexes, but contains "
+                    + permutation.length);
+        }
+        int[] result = new int[size];
+        Arrays.fill(result, -1);
+        for (int i = 0; i < size; i++) {
+            if (permutation[i] < 0 || permutation[i] >= size || result[permutation[i]] != -1) {
+                throw new IllegalArgumentException("Index " + permutation[i] + " is out of range or repeated, "
+                        + "so array is not a permutation.");
+            }
+            result[permutation[i]] = i;
+        }
+        return result;
+    }
+
+    private static int rowLength(SparseMatrix matrix, int i) {
+        return matrix.rowStart(i + 1) - matrix.rowStart(i);
+    }
+
+    private static class Graph {
+        private final SparseMatrix matrix;
+        private final SparseMatrix transposed;
+        private final int[] degrees;
+
+        Graph(SparseMatrix matrix) {
+            if (matrix.getNumberOfRows() != matrix.getNumberOfColumns()) {
+                throw new IllegalArgumentException("Graph ordering is defined only for square matrices.");
+            }
+            this.matrix = matrix;
+            this.transposed = matrix.transposedMatrix();
+            this.degrees = new int[matrix.getNumberOfRows()];
+            for (int i = 0; i < degrees.length; i++) {
+                degrees[i] = rowLength(matrix, i) + rowLength(transposed, i);
+            }
+        }
+
+        int size() {
+            return degrees.length;
+        }
+
+        /**
+         * Visits all nodes breadth-first. A new traversal starts from the lowest degree unvisited node when the queue
+         * is exhausted or when partSize nodes have been visited since the last start.
+         */
+        int[] breadthFirstOrder(int partSize, boolean sortNeighboursByDegree) {
+            int[] order = new int[size()];
+            boolean[] visited = new boolean[size()];
+            int[] nodesByDegree = nodesByDegree();
+            int nextStartCandidate = 0;
+            int visitedCount = 0;
+            int queueHead = 0;
+            int partStart = 0;
+            long[] neighbours = new long[0];
+            while (visitedCount < order.length) {
+                if (queueHead == visitedCount || visitedCount - partStart >= partSize) {
+                    while (visited[nodesByDegree[nextStartCandidate]]) {
+                        nextStartCandidate++;
+                    }
+                    if (visitedCount - partStart >= partSize) {
+                        partStart = visitedCount;
+                    }
+                    // nodes queued for the previous part are left behind, they will be reached from new starts
+                    queueHead = visitedCount;
+                    visited[nodesByDegree[nextStartCandidate]] = true;
+                    order[visitedCount++] = nodesByDegree[nextStartCandidate];
+                }
+                int node = order[queueHead++];
+                neighbours = ensureCapacity(neighbours, degrees[node]);
+                int numberOfNeighbours = collectUnvisited(matrix, node, visited, neighbours, 0);
+                numberOfNeighbours = collectUnvisited(transposed, node, visited, neighbours, numberOfNeighbours);
+                if (sortNeighboursByDegree) {
+                    Arrays.sort(neighbours, 0, numberOfNeighbours);
+                }
+                int n = 0;
+                for (; n < numberOfNeighbours && visitedCount - partStart < partSize; n++) {
+                    order[visitedCount++] = (int) neighbours[n];
+                }
+                // neighbours that did not fit into the current part stay unvisited
+                for (; n < numberOfNeighbours; n++) {
+                    visited[(int) neighbours[n]] = false;
+                }
+            }
+            return order;
+        }
+
+        //packs degree into high bits, so sorting orders neighbours by degree
+        private int collectUnvisited(SparseMatrix source, int node, boolean[] visited, long[] neighbours,
+                                     int numberOfNeighbours) {
+            for (int elementIndex = source.rowStart(node); elementIndex < source.rowStart(node + 1); elementIndex++) {
+                int neighbour = source.columnAt(elementIndex);
+                if (!visited[neighbour]) {
+                    visited[neighbour] = true;
+                    neighbours[numberOfNeighbours++] = ((long) degrees[neighbour] << 32) | neighbour;
+                }
+            }
+            return numberOfNeighbours;
+        }
+
+        private int[] nodesByDegree() {
+            long[] packedNodes = new long[size()];
+            for (int i = 0; i < packedNodes.length; i++) {
+                packedNodes[i] = ((long) degrees[i] << 32) | i;
+            }
+            Arrays.sort(packedNodes);
+            int[] nodes = new int[packedNodes.length];
+            for (int i = 0; i < nodes.length; i++) {
+                nodes[i] = (int) packedNodes[i];
+            }
+            return nodes;
+        }
+
+        private static long[] ensureCapacity(long[] array, int capacity) {
+            return array.length >= capacity ? array : new long[capacity];
+        }
+    }
+}
@@ -1,7 +1,7 @@
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
@@ -46,9 +46,13 @@ public class SparseMatrixSupportImpl implements SparseMatrixSupport<SparseMatrix
         if (first.getNumberOfColumns() != second.getNumberOfRows()) {
             throw new IllegalArgumentException("Number of columns of the first matrix must be equal to number of rows of the second.");
         }
+        // empty row slice, e.g. the last mini-batch, needs no threads
+        if (first.getNumberOfRows() == 0) {
+            return SparseMatrix.concatenateRows(second.getNumberOfColumns(), Collections.emptyList());
+        }
 
         LOGGER.info("Calculation of resulting multiply matrix has been started.");
-        SparseMatrix resultMatrix = new SparseMatrix(first.getNumberOfRows(), second.getNumberOfColumns(),
+        SparseMatrix resultMatrix = SparseMatrix.concatenateRows(second.getNumberOfColumns(),
                 concurrentlyMultiply(first, second));
         LOGGER.info("Calculation of resulting multiply matrix has been finished.");
 
@@ -56,47 +60,47 @@ public class SparseMatrixSupportImpl implements SparseMatrixSupport<SparseMatrix
         return resultMatrix;
     }
 
-    private Stream<MatrixElement> concurrentlyMultiply(SparseMatrix first, SparseMatrix second) {
+    //every thread calculates its own block of resulting rows
+    private List<SparseMatrix> concurrentlyMultiply(SparseMatrix first, SparseMatrix second) {
         int numberOfThreads = defaultNumberOfThreads > first.getNumberOfRows() ? first.getNumberOfRows()
                 : defaultNumberOfThreads;
         ExecutorService executorService = Executors.newFixedThreadPool(numberOfThreads);
-        return IntStream.range(0, numberOfThreads)
-                .mapToObj(i -> submitTask(executorService, i, first, second, numberOfThreads))
-                .collect(Collectors.toList())
-                .stream()
-                .map(future -> {
-                    try {
-                        return future.get();
-                    } catch (InterruptedException | ExecutionException e) {
-                        throw new RuntimeException("Error occurred during calculation of matrix rows.", e);
-                    }
-                })
-                .flatMap(List::stream);
+        try {
+            return IntStream.range(0, numberOfThreads)
+                    .mapToObj(i -> submitTask(executorService, i, first, second, numberOfThreads))
+                    .collect(Collectors.toList())
+                    .stream()
+                    .map(future -> {
+                        try {
+                            return future.get();
+                        } catch (InterruptedException | ExecutionException e) {
+                            throw new RuntimeException("Error occurred during calculation of matrix rows.", e);
+                        }
+                    })
+                    .collect(Collectors.toList());
+        } finally {
+            executorService.shutdown();
+        }
     }
 
-    private Future<List<MatrixElement>> submitTask(ExecutorService executorService, int i, SparseMatrix first,
+    private Future<SparseMatrix> submitTask(ExecutorService executorService, int i, SparseMatrix first,
                                                    SparseMatrix second, int numberOfThreads) {
         return executorService.submit(() -> calculateRows(calcStartRow(i, first.getNumberOfRows(), numberOfThreads),
                 calcEndRow(i, first.getNumberOfRows(), numberOfThreads), first, second));
     }
 
-    private int calcEndRow(int i, int numberOfRows, int numberOfThreads) {
+    static int calcEndRow(int i, int numberOfRows, int numberOfThreads) {
         return i == numberOfThreads - 1 ? numberOfRows : calcStartRow(i + 1, numberOfRows, numberOfThreads);
     }
 
-    private int calcStartRow(int i, int numberOfRows, int numberOfThreads) {
+    static int calcStartRow(int i, int numberOfRows, int numberOfThreads) {
         return numberOfRows / numberOfThreads * i;
     }
 
-    private List<MatrixElement> calculateRows(int startRowInclusive, int endRowExclusive, SparseMatrix first,
-                                              SparseMatrix second) {
-        List<MatrixElement> result = new ArrayList<>((endRowExclusive - startRowInclusive) * second.getNumberOfRows());
+    private SparseMatrix calculateRows(int startRowInclusive, int endRowExclusive, SparseMatrix first,
+                                       SparseMatrix second) {
         LOGGER.info("Started to calculate rows from " + startRowInclusive + " to " + endRowExclusive);
-        for (int i = startRowInclusive; i < endRowExclusive; i++) {
-            if (first.containsRow(i)) {
-                result.addAll(first.calculateMultipliedRow(second, i));
-            }
-        }
+        SparseMatrix result = first.rowSlice(startRowInclusive, endRowExclusive).multiplySequentially(second);
         LOGGER.info("Finished to calculate rows from " + startRowInclusive + " to " + endRowExclusive);
         return result;
     }
@@ -0,0 +1,69 @@
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entry point of a worker JVM started by {@link ShardedSparseMatrixSupportImpl}.
+ * Connects back to the coordinator, reads the second matrix and a row shard of the first one,
+ * multiplies them and sends back the resulting row block. Until the block is sent, a heartbeat is sent
+ * every heartbeat interval, so the coordinator can tell a slow worker from a hung one.
+ * Arguments: coordinator port on loopback interface, token that proves to the coordinator that the connection comes
+ * from the worker it started, number of threads used for multiplying and heartbeat interval in milliseconds.
+ */
+public class SparseMatrixWorker {
+    static final byte HEARTBEAT = 0;
+    static final byte RESULT = 1;
+    private static final Logger LOGGER = LoggerFactory.getLogger(SparseMatrixWorker.class);
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 4) {
+            throw new IllegalArgumentException("Usage: SparseMatrixWorker <coordinator port> <token> "
+                    + "<number of threads> <heartbeat interval millis>");
+        }
+        int port = Integer.parseInt(args[0]);
+        long token = Long.parseLong(args[1]);
+        int numberOfThreads = Integer.parseInt(args[2]);
+        int heartbeatIntervalMillis = Integer.parseInt(args[3]);
+        ScheduledExecutorService heartbeats = Executors.newSingleThreadScheduledExecutor();
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port);
+             DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()))) {
+            out.writeLong(token);
+            out.flush();
+            heartbeats.scheduleAtFixedRate(() -> send(out, HEARTBEAT, null), 0, heartbeatIntervalMillis,
+                    TimeUnit.MILLISECONDS);
+            SparseMatrix second = SparseMatrix.readFrom(in);
+            SparseMatrix shard = SparseMatrix.readFrom(in);
+            LOGGER.info("Worker received shard with " + shard.getNumberOfRows() + " rows.");
+            send(out, RESULT, new SparseMatrixSupportImpl(numberOfThreads).multiply(shard, second));
+        } finally {
+            heartbeats.shutdownNow();
+        }
+    }
+
+    //heartbeats and the result share the stream, so every message is written under its lock
+    private static void send(DataOutputStream out, byte message, SparseMatrix block) {
+        synchronized (out) {
+            try {
+                out.writeByte(message);
+                if (block != null) {
+                    block.writeTo(out);
+                }
+                out.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,39 @@
+/**
+ * Hot inner loops of sparse matrix arithmetic, Java 17+ version packed into META-INF/versions/17 of the jar.
+ * Uses Vector API when jdk.incubator.vector module is added to the JVM (--add-modules jdk.incubator.vector)
+ * and the sparse.matrix.vectorKernels system property is not set to false; otherwise falls back to scalar code.
+ */
+final class SparseKernels {
+    static final boolean VECTOR_KERNELS_ENABLED = ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()
+            && Boolean.parseBoolean(System.getProperty("sparse.matrix.vectorKernels", "true"));
+
+    private SparseKernels() {
+    }
+
+    static boolean vectorKernelsEnabled() {
+        return VECTOR_KERNELS_ENABLED;
+    }
+
+    static void scatterAdd(int[] accumulator, int multiplier, int[] columns, int[] values, int from, int to) {
+        if (VECTOR_KERNELS_ENABLED) {
+            VectorSparseKernels.scatterAdd(accumulator, multiplier, columns, values, from, to);
+        } else {
+            ScalarSparseKernels.scatterAdd(accumulator, multiplier, columns, values, from, to);
+        }
+    }
+
+    static void gatherAndClear(int[] accumulator, int[] columns, int count, int[] output, int outputOffset) {
+        if (VECTOR_KERNELS_ENABLED) {
+            VectorSparseKernels.gatherAndClear(accumulator, columns, count, output, outputOffset);
+        } else {
+            ScalarSparseKernels.gatherAndClear(accumulator, columns, count, output, outputOffset);
+        }
+    }
+
+    static int dot(int[] values, int[] columns, int from, int to, int[] vector) {
+        if (VECTOR_KERNELS_ENABLED) {
+            return VectorSparseKernels.dot(values, columns, from, to, vector);
+        }
+        return ScalarSparseKernels.dot(values, columns, from, to, vector);
+    }
+}
@@ -0,0 +1,48 @@
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Vector API implementations of {@link SparseKernels}. Rows are processed by full vectors using gather/scatter over
+ * column indexes, and the remainder that does not fill a vector is handled by scalar code, so rows do not have to be
+ * padded to the vector length.
+ */
+final class VectorSparseKernels {
+    private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+
+    private VectorSparseKernels() {
+    }
+
+    static void scatterAdd(int[] accumulator, int multiplier, int[] columns, int[] values, int from, int to) {
+        int t = from;
+        for (int bound = to - SPECIES.length(); t <= bound; t += SPECIES.length()) {
+            IntVector accumulated = IntVector.fromArray(SPECIES, accumulator, 0, columns, t);
+            accumulated.add(IntVector.fromArray(SPECIES, values, t).mul(multiplier))
+                    .intoArray(accumulator, 0, columns, t);
+        }
+        ScalarSparseKernels.scatterAdd(accumulator, multiplier, columns, values, t, to);
+    }
+
+    static void gatherAndClear(int[] accumulator, int[] columns, int count, int[] output, int outputOffset) {
+        IntVector zero = IntVector.zero(SPECIES);
+        int t = 0;
+        for (int bound = count - SPECIES.length(); t <= bound; t += SPECIES.length()) {
+            IntVector.fromArray(SPECIES, accumulator, 0, columns, t).intoArray(output, outputOffset + t);
+            zero.intoArray(accumulator, 0, columns, t);
+        }
+        for (; t < count; t++) {
+            output[outputOffset + t] = accumulator[columns[t]];
+            accumulator[columns[t]] = 0;
+        }
+    }
+
+    static int dot(int[] values, int[] columns, int from, int to, int[] vector) {
+        IntVector sum = IntVector.zero(SPECIES);
+        int t = from;
+        for (int bound = to - SPECIES.length(); t <= bound; t += SPECIES.length()) {
+            sum = sum.add(IntVector.fromArray(SPECIES, values, t)
+                    .mul(IntVector.fromArray(SPECIES, vector, 0, columns, t)));
+        }
+        return sum.reduceLanes(VectorOperators.ADD) + ScalarSparseKernels.dot(values, columns, t, to, vector);
+    }
+}
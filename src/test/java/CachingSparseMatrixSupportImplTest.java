@@ -0,0 +1,62 @@
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+public class CachingSparseMatrixSupportImplTest {
+
+    @Test
+    public void testMultiplyIsCached() {
+        CachingSparseMatrixSupportImpl support = new CachingSparseMatrixSupportImpl(1 << 20);
+        SparseMatrix denseMatrix = SparseMatrixTestUtil.generateDenseMatrix(20, 30);
+        SparseMatrix transposed = support.transpose(denseMatrix);
+        assertSame(transposed, support.transpose(SparseMatrixTestUtil.generateDenseMatrix(20, 30)));
+        SparseMatrix product = support.multiply(denseMatrix, transposed);
+        assertSame(product, support.multiply(denseMatrix, denseMatrix.transposedMatrix()));
+        assertEquals(2, support.getNumberOfCachedMatrices());
+        assertEquals(CachingSparseMatrixSupportImpl.weight(transposed) + CachingSparseMatrixSupportImpl.weight(product),
+                support.getCachedBytes());
+    }
+
+    @Test
+    public void testLruEviction() {
+        SparseMatrix first = SparseMatrixTestUtil.generateDenseMatrix(10, 10);
+        SparseMatrix second = SparseMatrixTestUtil.generateSparseMatrixWithSkippedCells(10, 10, 3);
+        SparseMatrix third = first.permuteRows(new int[]{9, 8, 7, 6, 5, 4, 3, 2, 1, 0});
+        long weight = CachingSparseMatrixSupportImpl.weight(first.transposedMatrix());
+        CachingSparseMatrixSupportImpl support = new CachingSparseMatrixSupportImpl(new SparseMatrixSupportImpl(),
+                2 * weight, CachingSparseMatrixSupportImpl.EvictionPolicy.LRU);
+        SparseMatrix firstTransposed = support.transpose(first);
+        support.transpose(second);
+        support.transpose(first);
+        support.transpose(third);
+        assertSame(firstTransposed, support.transpose(first));
+        assertEquals(2, support.getNumberOfCachedMatrices());
+    }
+
+    @Test
+    public void testLfuEviction() {
+        SparseMatrix first = SparseMatrixTestUtil.generateDenseMatrix(10, 10);
+        SparseMatrix second = SparseMatrixTestUtil.generateDenseMatrix(10, 11);
+        SparseMatrix third = SparseMatrixTestUtil.generateDenseMatrix(11, 10);
+        long weight = CachingSparseMatrixSupportImpl.weight(first);
+        CachingSparseMatrixSupportImpl support = new CachingSparseMatrixSupportImpl(new SparseMatrixSupportImpl(),
+                2 * weight + 200, CachingSparseMatrixSupportImpl.EvictionPolicy.LFU);
+        SparseMatrix firstSquare = support.power(first, 2);
+        support.power(first, 2);
+        SparseMatrix secondTransposed = support.transpose(second);
+        support.transpose(third);
+        assertSame(firstSquare, support.power(first, 2));
+        assertEquals(2, support.getNumberOfCachedMatrices());
+        assertNotSame(secondTransposed, support.transpose(second));
+    }
+
+    @Test
+    public void testFirstPowerIsNotCached() {
+        CachingSparseMatrixSupportImpl support = new CachingSparseMatrixSupportImpl(1 << 20);
+        SparseMatrix denseMatrix = SparseMatrixTestUtil.generateDenseMatrix(5, 5);
+        assertSame(denseMatrix, support.power(denseMatrix, 1));
+        assertEquals(0, support.getNumberOfCachedMatrices());
+    }
+}
@@ -0,0 +1,52 @@
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+/**
+ * Measures sparse matrix by vector and sparse matrix by sparse matrix multiplication, the code paths that use
+ * {@link SparseKernels}. Not a unit test; run manually against the multi-release jar built on JDK 17+:
+ * java --add-modules jdk.incubator.vector -cp target/sparse-matrix-1.0-SNAPSHOT.jar:target/test-classes:... KernelBenchmark
+ * Add -Dsparse.matrix.vectorKernels=false to measure scalar kernels, -XX:UseAVX=2 to restrict HotSpot to AVX2.
+ * Every run is timed separately and mean, standard deviation, min and max over runs are printed; differences
+ * smaller than the spread, or seen in one JVM launch only, should not be read as a speedup.
+ * Arguments: [size] [nonZerosPerRow] [runs]
+ */
+public class KernelBenchmark {
+
+    public static void main(String[] args) {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+        int nonZerosPerRow = args.length > 1 ? Integer.parseInt(args[1]) : 32;
+        int runs = args.length > 2 ? Integer.parseInt(args[2]) : 15;
+        SparseMatrix matrix = SparseMatrixTestUtil.generateRandomSparseMatrix(size, size, nonZerosPerRow, 42);
+        int[] vector = new int[size];
+        for (int i = 0; i < size; i++) {
+            vector[i] = i % 31 - 15;
+        }
+        SparseMatrixSupportImpl support = new SparseMatrixSupportImpl(1);
+
+        measure("SpMV x100", runs, () -> {
+            int[] result = vector;
+            for (int i = 0; i < 100; i++) {
+                result = matrix.multiplyByVector(vector);
+            }
+            return result.length;
+        });
+        measure("A * A", runs, () -> support.multiply(matrix, matrix).getNumberOfNonZeroElements());
+    }
+
+    private static void measure(String name, int runs, Supplier<Integer> calculation) {
+        for (int i = 0; i < 3; i++) {
+            calculation.get();
+        }
+        double[] millis = new double[runs];
+        for (int i = 0; i < runs; i++) {
+            long start = System.nanoTime();
+            calculation.get();
+            millis[i] = (System.nanoTime() - start) / 1_000_000.0;
+        }
+        double mean = Arrays.stream(millis).average().orElse(0);
+        double variance = Arrays.stream(millis).map(m -> (m - mean) * (m - mean)).sum() / Math.max(1, runs - 1);
+        System.out.println(String.format("%s: %.1f +- %.1f ms (min %.1f, max %.1f, %d runs)", name, mean,
+                Math.sqrt(variance), Arrays.stream(millis).min().orElse(0), Arrays.stream(millis).max().orElse(0),
+                runs));
+    }
+}
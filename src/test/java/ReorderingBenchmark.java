@@ -0,0 +1,38 @@
+import java.util.function.Supplier;
+
+/**
+ * Compares plain multiplication of a shuffled band matrix by itself with multiplication after reordering,
+ * both with the ordering remembered by ReorderingSparseMatrixSupportImpl and with a fresh support on every call.
+ * Not a unit test; run manually with test classpath:
+ * java -cp target/classes:target/test-classes:... ReorderingBenchmark [size] [halfBandwidth] [iterations]
+ */
+public class ReorderingBenchmark {
+
+    public static void main(String[] args) {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int halfBandwidth = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+        int iterations = args.length > 2 ? Integer.parseInt(args[2]) : 3;
+        SparseMatrix shuffled = SparseMatrixTestUtil.generateShuffledBandMatrix(size, halfBandwidth, 42);
+        SparseMatrixSupportImpl support = new SparseMatrixSupportImpl();
+
+        int[] permutation = SparseMatrixReordering.reverseCuthillMcKee(shuffled);
+        SparseMatrix reordered = shuffled.permute(permutation, permutation);
+
+        measure("shuffled A * A", iterations, () -> support.multiply(shuffled, shuffled));
+        measure("reordered A * A (ordering precomputed)", iterations, () -> support.multiply(reordered, reordered));
+        ReorderingSparseMatrixSupportImpl reorderingSupport = new ReorderingSparseMatrixSupportImpl();
+        measure("reorder + multiply + map back (ordering cached by support)", iterations,
+                () -> reorderingSupport.multiply(shuffled, shuffled));
+        measure("reorder + multiply + map back (ordering computed every call)", iterations,
+                () -> new ReorderingSparseMatrixSupportImpl().multiply(shuffled, shuffled));
+    }
+
+    private static void measure(String name, int iterations, Supplier<SparseMatrix> multiplication) {
+        multiplication.get();
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            multiplication.get();
+        }
+        System.out.println(name + ": " + (System.nanoTime() - start) / iterations / 1_000_000 + " ms");
+    }
+}
@@ -0,0 +1,165 @@
+import org.junit.Test;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class ShardedSparseMatrixSupportImplTest {
+
+    @Test
+    public void testShardedMultiplyEqualsLocalMultiply() {
+        SparseMatrix sparseMatrix1 = SparseMatrixTestUtil
+                .generateSparseMatrixWithSkippedRowsAndCells(301, 200, 3, 5);
+        SparseMatrix sparseMatrix2 = SparseMatrixTestUtil
+                .generateSparseMatrixWithSkippedRowsAndCells(200, 150, 2, 7);
+        SparseMatrix expected = new SparseMatrixSupportImpl().multiply(sparseMatrix1, sparseMatrix2);
+        SparseMatrix actual = new ShardedSparseMatrixSupportImpl(3, 2, 1).multiply(sparseMatrix1, sparseMatrix2);
+        assertEquals(301, actual.getNumberOfRows());
+        assertEquals(150, actual.getNumberOfColumns());
+        SparseMatrixSupport<SparseMatrix> support = new SparseMatrixSupportImpl();
+        assertArrayEquals(support.toStream(expected).toArray(), support.toStream(actual).toArray());
+    }
+
+    @Test
+    public void testMoreWorkersThanRows() {
+        SparseMatrix denseMatrix1 = SparseMatrixTestUtil.generateDenseMatrix(2, 3);
+        SparseMatrix denseMatrix2 = SparseMatrixTestUtil.generateDenseMatrix(3, 2);
+        SparseMatrix multipliedMatrix = new ShardedSparseMatrixSupportImpl(4, 1, 1).multiply(denseMatrix1, denseMatrix2);
+        assertEquals(10, multipliedMatrix.getValue(0, 0));
+        assertEquals(13, multipliedMatrix.getValue(0, 1));
+        assertEquals(28, multipliedMatrix.getValue(1, 0));
+        assertEquals(40, multipliedMatrix.getValue(1, 1));
+    }
+
+    @Test
+    public void testMultiplyMatrixWithoutRows() {
+        SparseMatrix emptyMatrix = new SparseMatrixSupportImpl().fromStream(Stream.of(0, 3));
+        SparseMatrix multipliedMatrix = new ShardedSparseMatrixSupportImpl(2, 1, 1)
+                .multiply(emptyMatrix, SparseMatrixTestUtil.generateDenseMatrix(3, 2));
+        assertEquals(0, multipliedMatrix.getNumberOfRows());
+        assertEquals(2, multipliedMatrix.getNumberOfColumns());
+    }
+
+    @Test
+    public void testFailedWorkerIsRetried() {
+        AtomicInteger launches = new AtomicInteger();
+        ShardedSparseMatrixSupportImpl.WorkerLauncher failingFirstLauncher = (port, token, numberOfThreads, heartbeatIntervalMillis) -> {
+            Process worker = ShardedSparseMatrixSupportImpl.launchLocalWorker(port, token, numberOfThreads,
+                    heartbeatIntervalMillis);
+            if (launches.getAndIncrement() == 0) {
+                worker.destroyForcibly();
+            }
+            return worker;
+        };
+        SparseMatrix denseMatrix1 = SparseMatrixTestUtil.generateDenseMatrix(10, 100);
+        SparseMatrix denseMatrix2 = SparseMatrixTestUtil.generateDenseMatrix(100, 10);
+        SparseMatrix multipliedMatrix = new ShardedSparseMatrixSupportImpl(1, 1, 2, 30_000, 30_000, 60_000, failingFirstLauncher)
+                .multiply(denseMatrix1, denseMatrix2);
+        assertEquals(2, launches.get());
+        int[] fifthRowOfFirstMatrix = MultiplyRowToColumnUtil
+                .generateRowWithSkippedRowsAndCells(5, 100, 0, 0);
+        int[] sixthColumnOfSecondMatrix = MultiplyRowToColumnUtil
+                .generateColumnWithSkippedRowsAndCells(6, 10, 100, 0, 0);
+        int cellFiveToSix = MultiplyRowToColumnUtil.multiplyRowToColumn(fifthRowOfFirstMatrix, sixthColumnOfSecondMatrix);
+        assertEquals(cellFiveToSix, multipliedMatrix.getValue(5, 6));
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void testShardFailsAfterAllAttempts() {
+        ShardedSparseMatrixSupportImpl.WorkerLauncher deadLauncher = (port, token, numberOfThreads, heartbeatIntervalMillis) -> {
+            Process worker = ShardedSparseMatrixSupportImpl.launchLocalWorker(port, token, numberOfThreads,
+                    heartbeatIntervalMillis);
+            worker.destroyForcibly();
+            return worker;
+        };
+        new ShardedSparseMatrixSupportImpl(2, 1, 2, 30_000, 30_000, 60_000, deadLauncher)
+                .multiply(SparseMatrixTestUtil.generateDenseMatrix(4, 4), SparseMatrixTestUtil.generateDenseMatrix(4, 4));
+    }
+
+    @Test
+    public void testStalledWorkerIsRetried() {
+        // second matrix does not fit into socket buffers, so sending it to the stalled worker blocks
+        SparseMatrix first = SparseMatrixTestUtil.generateDenseMatrix(2, 1000);
+        SparseMatrix second = SparseMatrixTestUtil.generateDenseMatrix(1000, 1000);
+        SparseMatrix multipliedMatrix = multiplyWithFailingFirstWorker(StallingWorker.class, first, second);
+        SparseMatrixSupport<SparseMatrix> support = new SparseMatrixSupportImpl();
+        assertArrayEquals(support.toStream(support.multiply(first, second)).toArray(),
+                support.toStream(multipliedMatrix).toArray());
+    }
+
+    @Test
+    public void testWorkerExceedingDeadlineIsRetried() {
+        SparseMatrix multipliedMatrix = multiplyWithFailingFirstWorker(HeartbeatingWorker.class,
+                SparseMatrixTestUtil.generateDenseMatrix(2, 3), SparseMatrixTestUtil.generateDenseMatrix(3, 2));
+        assertEquals(40, multipliedMatrix.getValue(1, 1));
+    }
+
+    @Test
+    public void testConnectionWithoutTokenIsRejected() throws IOException {
+        List<Socket> strangers = new ArrayList<>();
+        ShardedSparseMatrixSupportImpl.WorkerLauncher strangerFirstLauncher = (port, token, numberOfThreads,
+                                                                                heartbeatIntervalMillis) -> {
+            Socket stranger = new Socket(InetAddress.getLoopbackAddress(), port);
+            new DataOutputStream(stranger.getOutputStream()).writeLong(token + 1);
+            strangers.add(stranger);
+            return ShardedSparseMatrixSupportImpl.launchLocalWorker(port, token, numberOfThreads,
+                    heartbeatIntervalMillis);
+        };
+        SparseMatrix multipliedMatrix = new ShardedSparseMatrixSupportImpl(1, 1, 1, 30_000, 1_000, 60_000,
+                strangerFirstLauncher).multiply(SparseMatrixTestUtil.generateDenseMatrix(2, 3),
+                SparseMatrixTestUtil.generateDenseMatrix(3, 2));
+        assertEquals(40, multipliedMatrix.getValue(1, 1));
+        assertEquals(1, strangers.size());
+        try (Socket stranger = strangers.get(0)) {
+            assertEquals(-1, stranger.getInputStream().read());
+        }
+    }
+
+    private static SparseMatrix multiplyWithFailingFirstWorker(Class<?> failingWorker, SparseMatrix first,
+                                                               SparseMatrix second) {
+        AtomicInteger launches = new AtomicInteger();
+        ShardedSparseMatrixSupportImpl.WorkerLauncher failingFirstLauncher = (port, token, numberOfThreads,
+                                                                               heartbeatIntervalMillis) ->
+                launches.getAndIncrement() == 0
+                        ? ShardedSparseMatrixSupportImpl.launchLocalJvm(failingWorker, port, token, numberOfThreads,
+                        heartbeatIntervalMillis)
+                        : ShardedSparseMatrixSupportImpl.launchLocalWorker(port, token, numberOfThreads,
+                        heartbeatIntervalMillis);
+        SparseMatrix multipliedMatrix = new ShardedSparseMatrixSupportImpl(1, 1, 2, 30_000, 1_000, 3_000,
+                failingFirstLauncher).multiply(first, second);
+        assertEquals(2, launches.get());
+        return multipliedMatrix;
+    }
+
+    //connects to the coordinator, presents the token and never reads or answers
+    public static class StallingWorker {
+        public static void main(String[] args) throws IOException, InterruptedException {
+            try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), Integer.parseInt(args[0]))) {
+                new DataOutputStream(socket.getOutputStream()).writeLong(Long.parseLong(args[1]));
+                Thread.sleep(Long.MAX_VALUE);
+            }
+        }
+    }
+
+    //sends heartbeats forever, but never reads the shard or returns rows
+    public static class HeartbeatingWorker {
+        public static void main(String[] args) throws IOException, InterruptedException {
+            try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), Integer.parseInt(args[0]));
+                 DataOutputStream out = new DataOutputStream(socket.getOutputStream())) {
+                out.writeLong(Long.parseLong(args[1]));
+                while (true) {
+                    out.writeByte(SparseMatrixWorker.HEARTBEAT);
+                    Thread.sleep(Integer.parseInt(args[3]));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,78 @@
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Runs by failsafe against the packaged multi-release jar on JDK 17+, so {@link SparseKernels} resolves to the
+ * version from META-INF/versions/17 and dispatches to Vector API kernels; they must agree with scalar kernels.
+ */
+public class SparseKernelsIT {
+    //covers empty rows, rows shorter than one vector and rows with a tail after several full vectors
+    private static final int MAX_ROW_LENGTH = 40;
+    private static final int OFFSET = 3;
+
+    @Test
+    public void testVectorKernelsAreEnabled() {
+        assertTrue(SparseKernels.vectorKernelsEnabled());
+    }
+
+    @Test
+    public void testScatterAddEqualsScalar() {
+        Random random = new Random(1);
+        for (int length = 0; length <= MAX_ROW_LENGTH; length++) {
+            int[] columns = generateColumns(random, OFFSET, length, 2 * MAX_ROW_LENGTH);
+            int[] values = random.ints(OFFSET + length, -100, 100).toArray();
+            int[] expected = random.ints(2 * MAX_ROW_LENGTH, -100, 100).toArray();
+            int[] actual = expected.clone();
+            ScalarSparseKernels.scatterAdd(expected, 7, columns, values, OFFSET, OFFSET + length);
+            SparseKernels.scatterAdd(actual, 7, columns, values, OFFSET, OFFSET + length);
+            assertArrayEquals("Row length " + length, expected, actual);
+        }
+    }
+
+    @Test
+    public void testGatherAndClearEqualsScalar() {
+        Random random = new Random(2);
+        for (int length = 0; length <= MAX_ROW_LENGTH; length++) {
+            int[] columns = generateColumns(random, 0, length, 2 * MAX_ROW_LENGTH);
+            int[] expectedAccumulator = random.ints(2 * MAX_ROW_LENGTH, -100, 100).toArray();
+            int[] actualAccumulator = expectedAccumulator.clone();
+            int[] expectedOutput = new int[OFFSET + length];
+            int[] actualOutput = new int[OFFSET + length];
+            ScalarSparseKernels.gatherAndClear(expectedAccumulator, columns, length, expectedOutput, OFFSET);
+            SparseKernels.gatherAndClear(actualAccumulator, columns, length, actualOutput, OFFSET);
+            assertArrayEquals("Row length " + length, expectedOutput, actualOutput);
+            assertArrayEquals("Row length " + length, expectedAccumulator, actualAccumulator);
+        }
+    }
+
+    @Test
+    public void testDotEqualsScalar() {
+        Random random = new Random(3);
+        for (int length = 0; length <= MAX_ROW_LENGTH; length++) {
+            int[] columns = generateColumns(random, OFFSET, length, 2 * MAX_ROW_LENGTH);
+            int[] values = random.ints(OFFSET + length, -100, 100).toArray();
+            int[] vector = random.ints(2 * MAX_ROW_LENGTH, -100, 100).toArray();
+            assertEquals("Row length " + length,
+                    ScalarSparseKernels.dot(values, columns, OFFSET, OFFSET + length, vector),
+                    SparseKernels.dot(values, columns, OFFSET, OFFSET + length, vector));
+        }
+    }
+
+    //unique columns in random order placed after offset unused cells
+    private static int[] generateColumns(Random random, int offset, int length, int numberOfColumns) {
+        int[] shuffled = new int[numberOfColumns];
+        for (int i = 0; i < numberOfColumns; i++) {
+            int j = random.nextInt(i + 1);
+            shuffled[i] = shuffled[j];
+            shuffled[j] = i;
+        }
+        int[] columns = new int[offset + length];
+        System.arraycopy(shuffled, 0, columns, offset, length);
+        return columns;
+    }
+}
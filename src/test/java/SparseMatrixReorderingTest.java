@@ -0,0 +1,119 @@
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class SparseMatrixReorderingTest {
+
+    @Test
+    public void testPermute() {
+        SparseMatrix sparseMatrix = SparseMatrixTestUtil.generateSparseMatrixWithSkippedCells(5, 4, 2);
+        int[] rowPermutation = {3, 0, 4, 1, 2};
+        int[] columnPermutation = {2, 3, 0, 1};
+        SparseMatrix permuted = sparseMatrix.permute(rowPermutation, columnPermutation);
+        for (int i = 0; i < 5; i++) {
+            for (int j = 0; j < 4; j++) {
+                assertEquals(sparseMatrix.getValue(rowPermutation[i], columnPermutation[j]), permuted.getValue(i, j));
+            }
+        }
+        assertEquals(sparseMatrix.getNumberOfNonZeroElements(), permuted.getNumberOfNonZeroElements());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testPermuteWithRepeatedIndex() {
+        SparseMatrixTestUtil.generateDenseMatrix(3, 3).permuteRows(new int[]{0, 2, 2});
+    }
+
+    @Test
+    public void testDegreeSort() {
+        SparseMatrix sparseMatrix = new SparseMatrixSupportImpl()
+                .fromStream(Stream.of(4, 3, 1, 2, 3, 0, 0, 0, 1, 0, 1, 0, 5, 0));
+        assertArrayEquals(new int[]{1, 3, 2, 0}, SparseMatrixReordering.degreeSort(sparseMatrix));
+    }
+
+    @Test
+    public void testReverseCuthillMcKeeRestoresBand() {
+        SparseMatrix shuffled = SparseMatrixTestUtil.generateShuffledBandMatrix(500, 2, 42);
+        int[] permutation = SparseMatrixReordering.reverseCuthillMcKee(shuffled);
+        assertPermutation(permutation);
+        assertTrue(bandwidth(shuffled) > 100);
+        assertTrue(bandwidth(shuffled.permute(permutation, permutation)) <= 4);
+    }
+
+    @Test
+    public void testPartitionOrdering() {
+        SparseMatrix shuffled = SparseMatrixTestUtil.generateShuffledBandMatrix(300, 1, 7);
+        int[] permutation = SparseMatrixReordering.partitionOrdering(shuffled, 4);
+        assertPermutation(permutation);
+        assertTrue(bandwidth(shuffled.permute(permutation, permutation)) < bandwidth(shuffled));
+    }
+
+    @Test
+    public void testReorderingMultiply() {
+        SparseMatrix shuffled = SparseMatrixTestUtil.generateShuffledBandMatrix(400, 3, 1);
+        SparseMatrix rectangular = SparseMatrixTestUtil.generateSparseMatrixWithSkippedCells(400, 30, 7);
+        SparseMatrixSupport<SparseMatrix> support = new SparseMatrixSupportImpl();
+        SparseMatrixSupport<SparseMatrix> reorderingSupport = new ReorderingSparseMatrixSupportImpl();
+        assertArrayEquals(support.toStream(support.multiply(shuffled, rectangular)).toArray(),
+                reorderingSupport.toStream(reorderingSupport.multiply(shuffled, rectangular)).toArray());
+
+        SparseMatrixSupport<SparseMatrix> degreeSortSupport = new ReorderingSparseMatrixSupportImpl(support,
+                SparseMatrixReordering::degreeSort);
+        SparseMatrix transposed = rectangular.transposedMatrix();
+        assertArrayEquals(support.toStream(support.multiply(transposed, shuffled)).toArray(),
+                degreeSortSupport.toStream(degreeSortSupport.multiply(transposed, shuffled)).toArray());
+    }
+
+    @Test
+    public void testDefaultReorderingMultiplyOfRectangularMatrix() {
+        SparseMatrix rectangular = SparseMatrixTestUtil.generateSparseMatrixWithSkippedRowsAndCells(50, 30, 3, 4);
+        SparseMatrix sparseMatrix = SparseMatrixTestUtil.generateSparseMatrixWithSkippedCells(30, 20, 2);
+        SparseMatrixSupport<SparseMatrix> support = new SparseMatrixSupportImpl();
+        SparseMatrixSupport<SparseMatrix> reorderingSupport = new ReorderingSparseMatrixSupportImpl();
+        assertArrayEquals(support.toStream(support.multiply(rectangular, sparseMatrix)).toArray(),
+                reorderingSupport.toStream(reorderingSupport.multiply(rectangular, sparseMatrix)).toArray());
+    }
+
+    @Test
+    public void testOrderingIsCached() {
+        AtomicInteger orderingCalls = new AtomicInteger();
+        ReorderingSparseMatrixSupportImpl support = new ReorderingSparseMatrixSupportImpl(new SparseMatrixSupportImpl(),
+                matrix -> {
+                    orderingCalls.incrementAndGet();
+                    return SparseMatrixReordering.reverseCuthillMcKee(matrix);
+                }, 1);
+        SparseMatrix shuffled = SparseMatrixTestUtil.generateShuffledBandMatrix(100, 2, 1);
+        SparseMatrix rectangular = SparseMatrixTestUtil.generateSparseMatrixWithSkippedCells(100, 10, 3);
+        SparseMatrix expected = support.multiply(shuffled, rectangular);
+        assertArrayEquals(support.toStream(expected).toArray(),
+                support.toStream(support.multiply(SparseMatrixTestUtil.generateShuffledBandMatrix(100, 2, 1),
+                        rectangular)).toArray());
+        assertEquals(1, orderingCalls.get());
+        support.multiply(SparseMatrixTestUtil.generateShuffledBandMatrix(100, 2, 2), rectangular);
+        support.multiply(shuffled, rectangular);
+        assertEquals(3, orderingCalls.get());
+        assertEquals(1, support.getNumberOfCachedOrderings());
+    }
+
+    private static void assertPermutation(int[] permutation) {
+        int[] sorted = Arrays.copyOf(permutation, permutation.length);
+        Arrays.sort(sorted);
+        assertArrayEquals(IntStream.range(0, permutation.length).toArray(), sorted);
+    }
+
+    private static int bandwidth(SparseMatrix matrix) {
+        int bandwidth = 0;
+        for (int i = 0; i < matrix.getNumberOfRows(); i++) {
+            for (int elementIndex = matrix.rowStart(i); elementIndex < matrix.rowStart(i + 1); elementIndex++) {
+                bandwidth = Math.max(bandwidth, Math.abs(i - matrix.columnAt(elementIndex)));
+            }
+        }
+        return bandwidth;
+    }
+}
@@ -1,4 +1,3 @@
-import jdk.nashorn.internal.ir.debug.ObjectSizeCalculator;
 import org.junit.Test;
 
 import java.util.stream.Stream;
@@ -16,14 +15,12 @@ public class SparseMatrixSupportImplTest {
         assertEquals(5, sparseMatrix.getValue(0, 0));
         assertEquals(0, sparseMatrix.getValue(1, 0));
         assertEquals(2, sparseMatrix.getValue(1, 2));
-        System.out.println(ObjectSizeCalculator.getObjectSize(sparseMatrix));
     }
 
     @Test(expected = IllegalArgumentException.class)
     public void testFromStreamEmpty() {
         Stream<Integer> stream = Stream.of(0, 0);
         SparseMatrix sparseMatrix = new SparseMatrix(stream);
-        System.out.println(ObjectSizeCalculator.getObjectSize(sparseMatrix));
         assertEquals(0, sparseMatrix.getNumberOfRows());
         assertEquals(0, sparseMatrix.getNumberOfColumns());
         sparseMatrix.getValue(0, 0);
@@ -125,4 +122,16 @@ public class SparseMatrixSupportImplTest {
 
         assertEquals(lastNonEmptyValue, multipliedMatrix.getValue(lastNonEmptyRowIndex, lastColumnIndex));
     }
+
+    @Test
+    public void testMultiplyEmptyRowSlice() {
+        SparseMatrix denseMatrix = SparseMatrixTestUtil.generateDenseMatrix(4, 4);
+        SparseMatrix multipliedMatrix = new SparseMatrixSupportImpl().multiply(denseMatrix.rowSlice(1, 1), denseMatrix);
+        assertEquals(0, multipliedMatrix.getNumberOfRows());
+        assertEquals(4, multipliedMatrix.getNumberOfColumns());
+        SparseMatrix reorderedMatrix = new ReorderingSparseMatrixSupportImpl().multiply(denseMatrix.rowSlice(4, 4),
+                denseMatrix);
+        assertEquals(0, reorderedMatrix.getNumberOfRows());
+        assertEquals(4, reorderedMatrix.getNumberOfColumns());
+    }
 }
@@ -1,10 +1,15 @@
 import org.junit.Test;
 
+import java.util.Arrays;
 import java.util.Spliterator;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
 
 public class SparseMatrixTest {
     @Test
@@ -101,4 +106,172 @@ public class SparseMatrixTest {
         SparseMatrix denseMatrixTransposed = SparseMatrixTestUtil.generateDenseMatrix(10, 10);
         denseMatrixTransposed.getValue(0, 11);
     }
+
+    @Test
+    public void testRowSlice() {
+        SparseMatrix sparseMatrix = SparseMatrixTestUtil.generateSparseMatrixWithSkippedRows(10, 6, 3);
+        SparseMatrix rowSlice = sparseMatrix.rowSlice(3, 7);
+        assertEquals(4, rowSlice.getNumberOfRows());
+        assertEquals(6, rowSlice.getNumberOfColumns());
+        assertEquals(12, rowSlice.getNumberOfNonZeroElements());
+        for (int i = 0; i < 4; i++) {
+            for (int j = 0; j < 6; j++) {
+                assertEquals(sparseMatrix.getValue(i + 3, j), rowSlice.getValue(i, j));
+            }
+        }
+        assertEquals(sparseMatrix.getValue(6, 4), rowSlice.transposedMatrix().getValue(4, 3));
+        assertEquals(sparseMatrix.getValue(4, 1), sparseMatrix.rowSlice(2, 8).rowSlice(1, 4).getValue(1, 1));
+    }
+
+    @Test
+    public void testRowSliceMultiplyAndToStream() {
+        SparseMatrix denseMatrix = SparseMatrixTestUtil.generateDenseMatrix(5, 3);
+        SparseMatrix rowSlice = denseMatrix.rowSlice(1, 3);
+        SparseMatrixSupport<SparseMatrix> support = new SparseMatrixSupportImpl(2);
+        assertArrayEquals(new Integer[]{2, 3, 3, 4, 5, 6, 7, 8},
+                support.toStream(rowSlice).toArray(Integer[]::new));
+        SparseMatrix multipliedMatrix = support.multiply(rowSlice, SparseMatrixTestUtil.generateDenseMatrix(3, 2));
+        assertEquals(28, multipliedMatrix.getValue(0, 0));
+        assertEquals(40, multipliedMatrix.getValue(0, 1));
+    }
+
+    @Test
+    public void testSubmatrix() {
+        SparseMatrix sparseMatrix = SparseMatrixTestUtil.generateSparseMatrixWithSkippedCells(8, 9, 2);
+        SparseMatrix submatrix = sparseMatrix.submatrix(2, 6, 3, 8);
+        assertEquals(4, submatrix.getNumberOfRows());
+        assertEquals(5, submatrix.getNumberOfColumns());
+        for (int i = 0; i < 4; i++) {
+            for (int j = 0; j < 5; j++) {
+                assertEquals(sparseMatrix.getValue(i + 2, j + 3), submatrix.getValue(i, j));
+            }
+        }
+    }
+
+    @Test
+    public void testSelectRowsAndColumns() {
+        SparseMatrix sparseMatrix = SparseMatrixTestUtil.generateSparseMatrixWithSkippedCells(6, 7, 3);
+        int[] rowNumbers = {5, 0, 5, 2};
+        int[] columnNumbers = {6, 1, 3, 0};
+        SparseMatrix selected = sparseMatrix.selectRows(rowNumbers).selectColumns(columnNumbers);
+        assertEquals(4, selected.getNumberOfRows());
+        assertEquals(4, selected.getNumberOfColumns());
+        for (int i = 0; i < rowNumbers.length; i++) {
+            for (int j = 0; j < columnNumbers.length; j++) {
+                assertEquals(sparseMatrix.getValue(rowNumbers[i], columnNumbers[j]), selected.getValue(i, j));
+            }
+        }
+    }
+
+    @Test
+    public void testSelectRepeatedColumns() {
+        SparseMatrix sparseMatrix = SparseMatrixTestUtil.generateSparseMatrixWithSkippedCells(5, 6, 2);
+        int[] columnNumbers = {4, 1, 4, 0, 1, 1};
+        SparseMatrix selected = sparseMatrix.selectColumns(columnNumbers);
+        assertEquals(5, selected.getNumberOfRows());
+        assertEquals(6, selected.getNumberOfColumns());
+        for (int i = 0; i < 5; i++) {
+            for (int j = 0; j < columnNumbers.length; j++) {
+                assertEquals(sparseMatrix.getValue(i, columnNumbers[j]), selected.getValue(i, j));
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testGetNegativeRowIndexFromRowSlice() {
+        SparseMatrixTestUtil.generateDenseMatrix(4, 4).rowSlice(2, 4).getValue(-1, 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testWrongRowSlice() {
+        SparseMatrixTestUtil.generateDenseMatrix(3, 3).rowSlice(2, 4);
+    }
+
+    @Test
+    public void testGetValues() {
+        SparseMatrix sparseMatrix = SparseMatrixTestUtil
+                .generateSparseMatrixWithSkippedRowsAndCells(101, 67, 2, 3);
+        int[] rowNumbers = IntStream.range(0, 5000).map(i -> (i * 7919) % 101).toArray();
+        int[] columnNumbers = IntStream.range(0, 5000).map(i -> (i * 104729) % 67).toArray();
+        int[] expected = IntStream.range(0, 5000)
+                .map(i -> sparseMatrix.getValue(rowNumbers[i], columnNumbers[i]))
+                .toArray();
+        assertArrayEquals(expected, sparseMatrix.getValues(rowNumbers, columnNumbers));
+        assertArrayEquals(expected, sparseMatrix.getValuesInParallel(rowNumbers, columnNumbers));
+        assertArrayEquals(new int[]{sparseMatrix.getValue(4, 6)},
+                sparseMatrix.getValues(new int[]{4}, new int[]{6}));
+    }
+
+    @Test
+    public void testGetValuesFromRowSlice() {
+        SparseMatrix denseMatrix = SparseMatrixTestUtil.generateDenseMatrix(4, 4);
+        assertArrayEquals(new int[]{14, 8, 9, 14},
+                denseMatrix.rowSlice(2, 4).getValues(new int[]{1, 0, 0, 1}, new int[]{2, 0, 1, 2}));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testGetValuesWrongColumnIndex() {
+        SparseMatrixTestUtil.generateDenseMatrix(10, 10).getValues(new int[]{0, 1}, new int[]{3, 10});
+    }
+
+    @Test
+    public void testMultiplyByVector() {
+        SparseMatrix sparseMatrix = SparseMatrixTestUtil.generateRandomSparseMatrix(50, 300, 70, 3);
+        int[] vector = IntStream.range(0, 300).map(i -> i % 17 - 8).toArray();
+        int[] expected = IntStream.range(0, 50)
+                .map(i -> IntStream.range(0, 300).map(j -> sparseMatrix.getValue(i, j) * vector[j]).sum())
+                .toArray();
+        assertArrayEquals(expected, sparseMatrix.multiplyByVector(vector));
+        assertArrayEquals(Arrays.copyOfRange(expected, 10, 20), sparseMatrix.rowSlice(10, 20).multiplyByVector(vector));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMultiplyByWrongVector() {
+        SparseMatrixTestUtil.generateDenseMatrix(3, 3).multiplyByVector(new int[4]);
+    }
+
+    @Test
+    public void testFingerprint() {
+        SparseMatrix denseMatrix = SparseMatrixTestUtil.generateDenseMatrix(6, 5);
+        assertEquals(denseMatrix.fingerprint(), SparseMatrixTestUtil.generateDenseMatrix(6, 5).fingerprint());
+        assertEquals(denseMatrix.rowSlice(2, 4).fingerprint(),
+                denseMatrix.selectRows(new int[]{2, 3}).fingerprint());
+        assertNotEquals(denseMatrix.fingerprint(), SparseMatrixTestUtil.generateDenseMatrix(5, 6).fingerprint());
+        assertNotEquals(denseMatrix.fingerprint(), denseMatrix.permuteRows(new int[]{1, 0, 2, 3, 4, 5}).fingerprint());
+    }
+
+    @Test
+    public void testPower() {
+        SparseMatrix sparseMatrix = SparseMatrixTestUtil.generateSparseMatrixWithSkippedCells(30, 30, 4);
+        SparseMatrixSupport<SparseMatrix> support = new SparseMatrixSupportImpl();
+        SparseMatrix cube = support.multiply(support.multiply(sparseMatrix, sparseMatrix), sparseMatrix);
+        assertArrayEquals(support.toStream(cube).toArray(), support.toStream(sparseMatrix.power(3)).toArray());
+        assertSame(sparseMatrix, sparseMatrix.power(1));
+        SparseMatrix identity = sparseMatrix.power(0);
+        assertEquals(1, identity.getValue(7, 7));
+        assertEquals(0, identity.getValue(7, 6));
+        assertEquals(30, identity.getNumberOfNonZeroElements());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testPowerOfNonSquareMatrix() {
+        SparseMatrixTestUtil.generateDenseMatrix(3, 4).power(2);
+    }
+
+    @Test
+    @SuppressWarnings("deprecation")
+    public void testDeprecatedRowMultiply() {
+        SparseMatrix sparseMatrix = SparseMatrixTestUtil.generateSparseMatrixWithSkippedRows(6, 4, 2);
+        SparseMatrix denseMatrix = SparseMatrixTestUtil.generateDenseMatrix(4, 3);
+        SparseMatrix expected = new SparseMatrixSupportImpl().multiply(sparseMatrix, denseMatrix);
+        for (int i = 0; i < 6; i++) {
+            assertEquals(sparseMatrix.rowSlice(i, i + 1).getNumberOfNonZeroElements() > 0, sparseMatrix.containsRow(i));
+            for (MatrixElement element : sparseMatrix.calculateMultipliedRow(denseMatrix, i)) {
+                assertEquals(i, element.getRow());
+                assertEquals(expected.getValue(i, element.getColumn()), element.getValue());
+            }
+            assertEquals(expected.rowSlice(i, i + 1).getNumberOfNonZeroElements(),
+                    sparseMatrix.calculateMultipliedRow(denseMatrix, i).size());
+        }
+    }
 }
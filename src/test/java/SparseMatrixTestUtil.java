@@ -1,3 +1,5 @@
+import java.util.Arrays;
+import java.util.Random;
 import java.util.function.IntPredicate;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
@@ -37,4 +39,38 @@ class SparseMatrixTestUtil {
     private static Integer generateElement(int elem) {
         return elem % 149;
     }
+
+    /**
+     * Generates a square band matrix and shuffles its rows and columns with the same random permutation,
+     * which hides the band structure like arbitrary node numbering of a real-world mesh does.
+     */
+    static SparseMatrix generateShuffledBandMatrix(int size, int halfBandwidth, long seed) {
+        int[] permutation = IntStream.range(0, size).toArray();
+        Random random = new Random(seed);
+        for (int i = size - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = permutation[i];
+            permutation[i] = permutation[j];
+            permutation[j] = tmp;
+        }
+        MatrixElement[] elements = IntStream.range(0, size)
+                .boxed()
+                .flatMap(i -> IntStream.rangeClosed(Math.max(0, i - halfBandwidth), Math.min(size - 1, i + halfBandwidth))
+                        .mapToObj(j -> new MatrixElement(permutation[i], permutation[j], generateElement(i + j) + 1)))
+                .toArray(MatrixElement[]::new);
+        Arrays.parallelSort(elements);
+        return new SparseMatrix(size, size, Arrays.stream(elements));
+    }
+
+    static SparseMatrix generateRandomSparseMatrix(int numberOfRows, int numberOfColumns, int nonZerosPerRow,
+                                                   long seed) {
+        Random random = new Random(seed);
+        return new SparseMatrix(numberOfRows, numberOfColumns, IntStream.range(0, numberOfRows)
+                .boxed()
+                .flatMap(i -> random.ints(0, numberOfColumns)
+                        .distinct()
+                        .limit(nonZerosPerRow)
+                        .sorted()
+                        .mapToObj(j -> new MatrixElement(i, j, random.nextInt(149) + 1))));
+    }
 }